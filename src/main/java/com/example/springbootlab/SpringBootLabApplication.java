@@ -1,5 +1,7 @@
 package com.example.springbootlab;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
 import java.util.List;
 
 import org.springframework.boot.ApplicationArguments;
@@ -13,7 +15,7 @@ import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.SimpleCommandLinePropertySource;
 import org.springframework.lang.NonNull;
 
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.example.springbootlab.service.FetchDataService;
 
@@ -35,7 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @SpringBootApplication
 @ConfigurationPropertiesScan
-@EnableCaching
+@EnableScheduling
 public class SpringBootLabApplication implements ApplicationRunner {
 
     /** 資料抓取服務（建構子注入） */
@@ -45,6 +47,9 @@ public class SpringBootLabApplication implements ApplicationRunner {
     private static final String JOB_FETCH = "fetch";
     private static final String JOB_PROCESS = "process";
 
+    /** Task Mode 使用的 Spring Profile (見 {@code application-task.yml}) */
+    private static final String TASK_PROFILE = "task";
+
     /**
      * 應用程式主入口。
      *
@@ -57,15 +62,26 @@ public class SpringBootLabApplication implements ApplicationRunner {
      * </ul>
      * </p>
      *
+     * <p>
+     * Task Mode 另外啟用 {@code task} Profile，延遲初始化與關閉 Banner 等設定集中於 {@code application-task.yml}
+     * (只建立任務實際用到的元件，PDF 字型、快取等 Server 專用元件不會建立)，
+     * 並關閉 DevTools 重新啟動機制 (見 {@link #disableDevToolsRestart()})。
+     * 搭配 AppCDS 封存檔的啟動方式請參考 {@code pom.xml} 的 {@code cds} Profile。
+     * </p>
+     *
      * @param args 命令列參數
      */
     public static void main(@NonNull String[] args) {
         // 在啟動 Context 之前檢查參數，決定是否啟動 Web 應用程式
         boolean isTaskMode = isTaskModeFromArgs(args);
 
-        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootLabApplication.class)
-                .web(isTaskMode ? WebApplicationType.NONE : WebApplicationType.SERVLET)
-                .run(args);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(SpringBootLabApplication.class)
+                .web(isTaskMode ? WebApplicationType.NONE : WebApplicationType.SERVLET);
+        if (isTaskMode) {
+            disableDevToolsRestart();
+            builder.profiles(TASK_PROFILE);
+        }
+        ConfigurableApplicationContext context = builder.run(args);
 
         // Task Mode: 優雅關閉 Spring Context
         if (isTaskMode) {
@@ -74,6 +90,20 @@ public class SpringBootLabApplication implements ApplicationRunner {
         }
     }
 
+    /**
+     * 關閉 DevTools 重新啟動機制 (僅 Task Mode 呼叫)。
+     *
+     * <p>
+     * DevTools 重新啟動需要另一個執行緒與類別載入器重跑一次 main，一次性任務不需要。
+     * DevTools 於 {@code ApplicationStartingEvent} (載入 {@code application-task.yml} 之前) 即決定是否重新啟動，
+     * 只讀取系統屬性，因此無法寫在 Profile 設定檔中。
+     * Server Mode 不呼叫，開發時的 DevTools 重新啟動維持不變。
+     * </p>
+     */
+    private static void disableDevToolsRestart() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+    }
+
     /**
      * 從命令列參數判斷是否為 Task Mode (fetch 或 process)。
      *
@@ -93,7 +123,7 @@ public class SpringBootLabApplication implements ApplicationRunner {
      * 根據命令列參數決定執行模式：
      * <ul>
      * <li>Task Mode: 僅執行資料抓取任務，完成後結束程式</li>
-     * <li>Server Mode: 執行初始資料抓取，然後保持伺服器運行</li>
+     * <li>Server Mode: 保持伺服器運行 (可設定 {@code opendata.holiday.refresh-cron} 定期抓取)</li>
      * </ul>
      * </p>
      *
@@ -115,17 +145,44 @@ public class SpringBootLabApplication implements ApplicationRunner {
 
         if (JOB_FETCH.equals(jobType)) {
             log.info("執行模式: TASK MODE - 僅抓取資料...");
+            long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            long start = System.nanoTime();
             fetchDataService.fetchAndProcess();
+            logStartupReport(jobType, startupMillis, (System.nanoTime() - start) / 1_000_000);
             log.info("任務完成，程式即將結束。");
         } else if (JOB_PROCESS.equals(jobType)) {
             log.info("執行模式: TASK MODE - 僅處理現有檔案...");
+            long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+            long start = System.nanoTime();
             fetchDataService.processExistingFiles();
+            logStartupReport(jobType, startupMillis, (System.nanoTime() - start) / 1_000_000);
             log.info("任務完成，程式即將結束。");
         } else {
-            // 預設: Server Mode (不自動抓取資料，需透過 Task Mode 手動更新)
+            // 預設: Server Mode (啟動時不抓取資料；可設定 opendata.holiday.refresh-cron 定期抓取)
             log.info("執行模式: SERVER MODE");
             log.info("伺服器啟動完成，等待請求中。");
-            log.info("如需更新資料，請使用 Task Mode: --job=fetch 或 --job=process");
+            log.info("如需更新資料，請使用 Task Mode: --job=fetch 或 --job=process，或設定 opendata.holiday.refresh-cron");
         }
     }
+
+    /**
+     * 輸出 Task Mode 啟動時間報告。
+     *
+     * <p>
+     * 啟動時間為 JVM 啟動至 Context 就緒 (開始執行任務) 的時間，
+     * 並標示是否使用 AppCDS 封存檔與 JIT 設定，方便比較不同啟動方式的差異。
+     * </p>
+     *
+     * @param jobType       任務類型
+     * @param startupMillis JVM 啟動至開始執行任務的毫秒數
+     * @param jobMillis     任務本身耗時 (毫秒)
+     */
+    private static void logStartupReport(String jobType, long startupMillis, long jobMillis) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        List<String> jvmArgs = runtime.getInputArguments();
+        boolean cds = jvmArgs.stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+        boolean c1Only = jvmArgs.stream().anyMatch(arg -> arg.startsWith("-XX:TieredStopAtLevel=1"));
+        log.info("啟動報告 (--job={}): JVM 啟動至 Context 就緒 {} ms，任務 {} ms，合計 {} ms (AppCDS: {}, 僅 C1 編譯: {})",
+                jobType, startupMillis, jobMillis, startupMillis + jobMillis, cds ? "是" : "否", c1Only ? "是" : "否");
+    }
 }
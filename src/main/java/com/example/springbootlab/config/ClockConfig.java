@@ -0,0 +1,31 @@
+package com.example.springbootlab.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 時間來源設定類別。
+ *
+ * <p>
+ * 提供全域共用的 {@link Clock} Bean，
+ * 依時間判斷快取到期的元件由建構子注入，測試時可改用可控制的時間來源。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Configuration
+public class ClockConfig {
+
+    /**
+     * 建立系統時間來源 (UTC)。
+     *
+     * @return 系統時間來源
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.springbootlab.config;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+/**
+ * 對外 HTTP 用戶端設定類別。
+ *
+ * <p>
+ * 提供 NCDR 查詢 ({@code NcdrFeedService}) 使用的
+ * {@link ClientHttpRequestFactory}，連線與讀取逾時皆為 {@code ncdr.timeout}。
+ * 依 {@code spring.threads.virtual.enabled} 選擇實作：
+ * <ul>
+ * <li>啟用虛擬執行緒時：JDK {@link HttpClient}，內部非同步工作以虛擬執行緒執行</li>
+ * <li>未啟用時：{@link SimpleClientHttpRequestFactory} ({@code HttpURLConnection}，維持原本行為)</li>
+ * </ul>
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * 建立 NCDR 查詢用的 HTTP 請求工廠 Bean。
+     *
+     * @param ncdrProperties NCDR 配置
+     * @param environment    執行環境 (判斷是否啟用虛擬執行緒)
+     * @return HTTP 請求工廠
+     */
+    @Bean
+    public ClientHttpRequestFactory ncdrRequestFactory(NcdrProperties ncdrProperties, Environment environment) {
+        return ncdrRequestFactory(ncdrProperties, Threading.VIRTUAL.isActive(environment));
+    }
+
+    /**
+     * 建立 NCDR 查詢用的 HTTP 請求工廠 (未經 Spring 建立時使用)。
+     *
+     * @param ncdrProperties NCDR 配置
+     * @param virtualThreads 是否使用虛擬執行緒
+     * @return HTTP 請求工廠
+     */
+    public static ClientHttpRequestFactory ncdrRequestFactory(NcdrProperties ncdrProperties, boolean virtualThreads) {
+        if (virtualThreads) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .connectTimeout(ncdrProperties.timeout())
+                    // 與 HttpURLConnection 相同，GET 請求自動跟隨轉址
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(ncdrProperties.timeout());
+            return requestFactory;
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(ncdrProperties.timeout());
+        requestFactory.setReadTimeout(ncdrProperties.timeout());
+        return requestFactory;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.springbootlab.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * NCDR 即時警報相關配置屬性
+ *
+ * @param url      NCDR 停班停課 JSON Atom Feed 位址
+ * @param timeout  連線與讀取逾時
+ * @param realtime 即時停班停課快取配置
+ * @param stream   即時停班停課推播 (SSE) 配置
+ */
+@ConfigurationProperties(prefix = "ncdr")
+public record NcdrProperties(
+        @DefaultValue(NcdrProperties.DEFAULT_URL) String url,
+        @DefaultValue("5s") Duration timeout,
+        @DefaultValue Realtime realtime,
+        @DefaultValue Stream stream) {
+
+    /** NCDR 停班停課 (AlertType=33) JSON Atom Feed */
+    public static final String DEFAULT_URL = "https://alerts.ncdr.nat.gov.tw/JSONAtomFeed.ashx?AlertType=33";
+
+    /**
+     * 以預設值建立配置 (未經 Spring 綁定時使用)。
+     *
+     * @return 預設配置
+     */
+    public static NcdrProperties defaults() {
+        return new NcdrProperties(DEFAULT_URL, Duration.ofSeconds(5),
+                new Realtime(Duration.ofMinutes(2), Duration.ofSeconds(30), Duration.ofMinutes(10),
+                        Duration.ofSeconds(30)),
+                new Stream(Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofMinutes(30)));
+    }
+
+    /**
+     * 即時停班停課快取配置
+     *
+     * @param ttl           快取有效時間
+     * @param refreshAhead  到期前多久開始於背景重新抓取 (期間仍回傳目前的值)
+     * @param maxStale      到期後仍可直接回傳舊值 (同時背景重新抓取) 的時間，超過後改為等待重新抓取
+     * @param retryInterval 抓取失敗後，距離下次重試的最短間隔
+     */
+    public record Realtime(
+            @DefaultValue("2m") Duration ttl,
+            @DefaultValue("30s") Duration refreshAhead,
+            @DefaultValue("10m") Duration maxStale,
+            @DefaultValue("30s") Duration retryInterval) {
+    }
+
+    /**
+     * 即時停班停課推播 (SSE) 配置
+     *
+     * @param pollInterval      有連線時檢查 NCDR 變動的間隔 (經由即時快取，不會超過快取的上游查詢頻率)
+     * @param heartbeatInterval 內容未變動時送出心跳註解的間隔 (用於清除已斷線的連線)
+     * @param timeout           單一連線的逾時時間 (逾時後由瀏覽器 EventSource 自動重新連線)
+     */
+    public record Stream(
+            @DefaultValue("30s") Duration pollInterval,
+            @DefaultValue("2m") Duration heartbeatInterval,
+            @DefaultValue("30m") Duration timeout) {
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.springbootlab.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 /**
  * 開放資料相關配置屬性
@@ -13,9 +15,59 @@ public record OpendataProperties(Holiday holiday) {
     /**
      * 假日資料配置
      *
-     * @param url       資料來源 URL
-     * @param outputDir 輸出目錄路徑
+     * @param url          資料來源 URL
+     * @param outputDir    輸出目錄路徑
+     * @param downloadMode 下載模式
+     * @param auditFile    串流模式下同步保存原始 CSV 的稽核檔路徑 (未設定時不保存)
+     * @param stateFile    抓取狀態檔路徑，用於條件式請求與增量改寫 (未設定時每次完整抓取並改寫)
+     * @param parallelProcess 處理現有檔案 ({@code --job=process}) 時是否以虛擬執行緒平行處理各年度
+     * @param lockFile     更新作業的檔案鎖路徑，避免 Task Mode 與 Server 排程同時改寫 (未設定時僅限同一程序內互斥)
+     * @param publishChanges 年度 JSON 改寫後是否於程序內發布變更事件 (Task Mode 沒有需要重新載入的元件，設為 false)
      */
-    public record Holiday(String url, String outputDir) {
+    public record Holiday(String url, String outputDir, @DefaultValue("stream") DownloadMode downloadMode,
+            String auditFile, String stateFile, @DefaultValue("true") boolean parallelProcess, String lockFile,
+            @DefaultValue("true") boolean publishChanges) {
+
+        @ConstructorBinding
+        public Holiday {
+        }
+
+        /**
+         * 建立發布變更事件的配置。
+         *
+         * @param url             資料來源 URL
+         * @param outputDir       輸出目錄路徑
+         * @param downloadMode    下載模式
+         * @param auditFile       稽核檔路徑
+         * @param stateFile       抓取狀態檔路徑
+         * @param parallelProcess 是否平行處理各年度
+         * @param lockFile        更新作業的檔案鎖路徑
+         */
+        public Holiday(String url, String outputDir, DownloadMode downloadMode, String auditFile, String stateFile,
+                boolean parallelProcess, String lockFile) {
+            this(url, outputDir, downloadMode, auditFile, stateFile, parallelProcess, lockFile, true);
+        }
+
+        /**
+         * 以預設下載模式 (串流) 建立配置。
+         *
+         * @param url       資料來源 URL
+         * @param outputDir 輸出目錄路徑
+         */
+        public Holiday(String url, String outputDir) {
+            this(url, outputDir, DownloadMode.STREAM, null, null, true, null);
+        }
+    }
+
+    /**
+     * CSV 下載模式
+     */
+    public enum DownloadMode {
+
+        /** HTTP 回應本文直接送入 CSV 解析器，不落地暫存檔 */
+        STREAM,
+
+        /** 先完整下載至暫存檔，再開檔解析 */
+        TEMP_FILE
     }
 }
@@ -0,0 +1,57 @@
+package com.example.springbootlab.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * PDF 產生相關配置屬性
+ *
+ * @param cache  PDF 快取配置
+ * @param font   PDF 字型配置
+ * @param render PDF 產生執行緒池配置
+ */
+@ConfigurationProperties(prefix = "pdf")
+public record PdfProperties(@DefaultValue Cache cache, @DefaultValue Font font, @DefaultValue Render render) {
+
+    /**
+     * PDF 快取配置
+     *
+     * @param maxSize    快取檔案總大小上限
+     * @param maxEntries 快取筆數上限
+     * @param directory  快取檔案目錄 (未設定時使用系統暫存目錄，並於關閉時清除)
+     */
+    public record Cache(
+            @DefaultValue("64MB") DataSize maxSize,
+            @DefaultValue("32") int maxEntries,
+            String directory) {
+    }
+
+    /**
+     * PDF 字型配置
+     *
+     * @param location 字型檔位置 (支援 classpath: 與 file: 前綴)
+     * @param family   對應 CSS font-family 的字型名稱
+     * @param poolSize 已解析字型的最大保留數量 (同時產生 PDF 的上限)
+     */
+    public record Font(
+            @DefaultValue("classpath:fonts/NotoSansCJKtc-Regular.ttf") String location,
+            @DefaultValue("Noto Sans CJK TC") String family,
+            @DefaultValue("2") int poolSize) {
+    }
+
+    /**
+     * PDF 產生執行緒池配置
+     *
+     * @param concurrency   同時產生 PDF 的執行緒數
+     * @param queueCapacity 等待產生的佇列容量 (額滿時回應 429)
+     * @param retryAfter    回應 429 時建議的重試等待時間
+     */
+    public record Render(
+            @DefaultValue("2") int concurrency,
+            @DefaultValue("16") int queueCapacity,
+            @DefaultValue("5s") Duration retryAfter) {
+    }
+}
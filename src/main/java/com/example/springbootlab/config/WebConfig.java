@@ -0,0 +1,97 @@
+package com.example.springbootlab.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Web MVC 設定類別。
+ *
+ * <p>
+ * 假日開放資料 ({@code /opendata/holiday/**}) 優先由輸出目錄提供，
+ * 找不到時再回退至 classpath 內打包的版本，讓排程更新後的檔案不需重新建置即可生效。
+ * 回應帶有內容雜湊 ETag 與 Last-Modified，並以 {@code Cache-Control: no-cache}
+ * 要求瀏覽器每次重新驗證，資料未變更時直接回傳 304。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    /** 假日開放資料 URL 路徑 */
+    private static final String HOLIDAY_RESOURCE_PATTERN = "/opendata/holiday/**";
+
+    /** classpath 內打包的假日開放資料位置 */
+    private static final String HOLIDAY_CLASSPATH_LOCATION = "classpath:/static/opendata/holiday/";
+
+    /** 開放資料設定屬性（由 Spring 注入） */
+    private final OpendataProperties opendataProperties;
+
+    /** 靜態資源內容雜湊快取 (Key: 資源 URL) */
+    private final Map<String, ResourceEtag> etagCache = new ConcurrentHashMap<>();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String outputLocation = Paths.get(opendataProperties.holiday().outputDir()).toAbsolutePath().toUri()
+                .toString();
+        registry.addResourceHandler(HOLIDAY_RESOURCE_PATTERN)
+                .addResourceLocations(outputLocation, HOLIDAY_CLASSPATH_LOCATION)
+                .setCacheControl(CacheControl.noCache())
+                .setUseLastModified(true)
+                .setEtagGenerator(this::contentEtag);
+    }
+
+    /**
+     * 以資源內容的 MD5 雜湊作為強 ETag。
+     *
+     * <p>
+     * 雜湊結果依資源 URL 與修改時間快取，檔案未變更時不會重新讀取內容。
+     * </p>
+     *
+     * @param resource 即將回應的靜態資源
+     * @return ETag 值 (不含引號)，無法讀取時回傳 null
+     */
+    String contentEtag(Resource resource) {
+        try {
+            String key = resource.getURL().toString();
+            long lastModified = resource.lastModified();
+            ResourceEtag cached = etagCache.get(key);
+            if (cached != null && cached.lastModified() == lastModified) {
+                return cached.etag();
+            }
+            try (InputStream in = resource.getInputStream()) {
+                String etag = DigestUtils.md5Hex(in);
+                etagCache.put(key, new ResourceEtag(lastModified, etag));
+                return etag;
+            }
+        } catch (IOException e) {
+            log.warn("無法計算靜態資源 ETag: {}", resource.getDescription(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 已計算的資源 ETag。
+     *
+     * @param lastModified 計算時的資源修改時間
+     * @param etag         內容雜湊
+     */
+    private record ResourceEtag(long lastModified, String etag) {
+    }
+}
@@ -1,28 +1,53 @@
 package com.example.springbootlab.controller;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Paths;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.exception.BadRequestException;
 import com.example.springbootlab.exception.ResourceNotFoundException;
-import com.example.springbootlab.model.Holiday;
+import com.example.springbootlab.exception.TooManyRequestsException;
+import com.example.springbootlab.model.BusinessDayCount;
+import com.example.springbootlab.model.CalendarDay;
+import com.example.springbootlab.model.WorkingDayResult;
 import com.example.springbootlab.model.ncdr.NcdrEntry;
+import com.example.springbootlab.service.HolidayCalendarService;
+import com.example.springbootlab.service.HolidayJsonCache;
+import com.example.springbootlab.service.PdfCache;
+import com.example.springbootlab.service.PdfRenderExecutor;
 import com.example.springbootlab.service.RealTimeHolidayService;
 import com.example.springbootlab.service.PdfService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.springbootlab.service.WorkingDayCalculator;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -31,7 +56,8 @@ import org.springframework.http.ResponseEntity;
  * 假日資料 RESTful API 控制器。
  *
  * <p>
- * 提供假日資料的查詢介面，資料來源為預先產生的 JSON 檔案。
+ * 提供假日資料的查詢介面，資料來源為預先產生的 JSON 檔案，
+ * 經 {@link HolidayCalendarService} 載入為記憶體內的精簡日曆索引。
  * </p>
  *
  * @author Spring Boot Lab
@@ -43,78 +69,379 @@ import org.springframework.http.ResponseEntity;
 @RequestMapping("/api/holidays")
 public class HolidayController {
 
-    /** JSON 反序列化器（由 Spring 注入） */
-    private final ObjectMapper objectMapper;
+    /** 日期參數格式 (yyyyMMdd) */
+    private static final DateTimeFormatter DATE_PARAM_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /** 日期區間查詢允許的最大天數 */
+    private static final long MAX_RANGE_DAYS = 366;
+
+    /** 假日日曆索引服務 */
+    private final HolidayCalendarService holidayCalendarService;
+
+    /** 年度假日 JSON 回應快取 */
+    private final HolidayJsonCache holidayJsonCache;
+
+    /** 上班日推算服務 */
+    private final WorkingDayCalculator workingDayCalculator;
 
-    /** 開放資料設定屬性（由 Spring 注入） */
-    private final OpendataProperties opendataProperties;
-    
     /** 即時假日服務 */
     private final RealTimeHolidayService realTimeHolidayService;
 
     /** PDF 生成服務 */
     private final PdfService pdfService;
 
-    /** 假日資料快取 (Key: Year, Value: Holiday List) */
-    private final Map<String, List<Holiday>> holidayCache = new ConcurrentHashMap<>();
+    /** 年度 PDF 快取 */
+    private final PdfCache pdfCache;
+
+    /** PDF 產生執行緒池 */
+    private final PdfRenderExecutor pdfRenderExecutor;
 
     /**
      * 依年份取得假日資料。
      *
-     * @param year 西元年份 (例如: 2024)
-     * @return 該年份的假日資料列表
+     * <p>
+     * 直接回傳預先序列化的精簡 JSON 位元組，並依 {@code Accept-Encoding}
+     * 回傳預先壓縮的 gzip 或 deflate 版本。
+     * 回應帶有內容雜湊 ETag 與來源檔案的 Last-Modified，條件式請求命中時直接回傳 304。
+     * </p>
+     *
+     * @param year           西元年份 (例如: 2024)
+     * @param acceptEncoding 請求可接受的內容編碼
+     * @param webRequest     目前的請求 (用於條件式請求判斷)
+     * @return 該年份的假日資料 JSON，未變更時回傳 null (304 Not Modified)
      * @throws ResourceNotFoundException 當指定年份的資料不存在時
      */
     @GetMapping("/{year}")
-    public List<Holiday> getHolidaysByYear(@PathVariable String year) {
-        // Validate input format to prevent path traversal
-        if (!year.matches("^\\d{4}$")) {
-            throw new ResourceNotFoundException("年份格式錯誤，僅允許 4 位數字");
+    public ResponseEntity<byte[]> getHolidaysByYear(@PathVariable String year,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        validateYear(year);
+
+        HolidayJsonCache.EncodedJson json = holidayJsonCache.getYear(Integer.parseInt(year));
+        HolidayJsonCache.Variant variant = json.negotiate(acceptEncoding);
+        if (webRequest.checkNotModified(variant.etag(), json.lastModified())) {
+            return null;
         }
 
-        return holidayCache.computeIfAbsent(year, key -> {
-            File file = Paths.get(opendataProperties.holiday().outputDir(), key + ".json").toFile();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .cacheControl(CacheControl.noCache());
+        if (variant.encoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+        }
+        return response.body(variant.body());
+    }
 
-            if (!file.exists()) {
-                log.warn("找不到 {} 年度的假日資料。", key);
-                throw new ResourceNotFoundException("找不到 " + key + " 年度的假日資料");
-            }
+    /**
+     * 查詢單一日期是否為上班日。
+     *
+     * @param date 日期 (格式: yyyyMMdd)
+     * @return 該日期的日曆狀態
+     * @throws BadRequestException       當日期格式錯誤時
+     * @throws ResourceNotFoundException 當該年份的資料不存在時
+     */
+    @GetMapping("/date/{date}")
+    public CalendarDay getCalendarDay(@PathVariable String date) {
+        return holidayCalendarService.getCalendarDay(parseDate(date));
+    }
 
-            try {
-                return objectMapper.readValue(file, new TypeReference<List<Holiday>>() {
-                });
-            } catch (IOException e) {
-                log.error("讀取 {} 年度假日資料時發生錯誤", key, e);
-                throw new ResourceNotFoundException("無法讀取 " + key + " 年度的假日資料", e);
-            }
-        });
+    /**
+     * 查詢日期區間 (皆含) 內每一天的日曆狀態。
+     *
+     * @param from 起始日期 (格式: yyyyMMdd)
+     * @param to   結束日期 (格式: yyyyMMdd)
+     * @return 依日期排序的日曆狀態列表
+     * @throws BadRequestException       當日期格式錯誤、區間顛倒或超過 {@value #MAX_RANGE_DAYS} 天時
+     * @throws ResourceNotFoundException 當區間內有年份資料不存在時
+     */
+    @GetMapping("/range")
+    public List<CalendarDay> getCalendarDays(@RequestParam String from, @RequestParam String to) {
+        LocalDate fromDate = parseDate(from);
+        LocalDate toDate = parseDate(to);
+        validateRange(fromDate, toDate);
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_RANGE_DAYS) {
+            throw new BadRequestException("日期區間不可超過 " + MAX_RANGE_DAYS + " 天");
+        }
+        return holidayCalendarService.getCalendarDays(fromDate, toDate);
+    }
+
+    /**
+     * 計算日期區間 (皆含) 內的上班日數。
+     *
+     * @param from 起始日期 (格式: yyyyMMdd)
+     * @param to   結束日期 (格式: yyyyMMdd)
+     * @return 上班日統計
+     * @throws BadRequestException       當日期格式錯誤或區間顛倒時
+     * @throws ResourceNotFoundException 當區間內有年份資料不存在時
+     */
+    @GetMapping("/business-days")
+    public BusinessDayCount countBusinessDays(@RequestParam String from, @RequestParam String to) {
+        LocalDate fromDate = parseDate(from);
+        LocalDate toDate = parseDate(to);
+        validateRange(fromDate, toDate);
+        return holidayCalendarService.countBusinessDays(fromDate, toDate);
     }
-    
+
+    /**
+     * 推算基準日加上 N 個上班日後的日期。
+     *
+     * @param date 基準日 (格式: yyyyMMdd)
+     * @param days 上班日數 (負數代表往前推算；0 代表基準日或其後第一個上班日)
+     * @return 推算結果
+     * @throws BadRequestException       當日期格式錯誤時
+     * @throws ResourceNotFoundException 當推算結果超出假日資料範圍時
+     */
+    @GetMapping("/working-days/add")
+    public WorkingDayResult addWorkingDays(@RequestParam String date, @RequestParam int days) {
+        LocalDate base = parseDate(date);
+        return toWorkingDayResult(base, days, workingDayCalculator.addWorkingDays(base, days));
+    }
+
+    /**
+     * 推算基準日減去 N 個上班日後的日期。
+     *
+     * @param date 基準日 (格式: yyyyMMdd)
+     * @param days 上班日數
+     * @return 推算結果
+     * @throws BadRequestException       當日期格式錯誤時
+     * @throws ResourceNotFoundException 當推算結果超出假日資料範圍時
+     */
+    @GetMapping("/working-days/subtract")
+    public WorkingDayResult subtractWorkingDays(@RequestParam String date, @RequestParam int days) {
+        LocalDate base = parseDate(date);
+        return toWorkingDayResult(base, -days, workingDayCalculator.subtractWorkingDays(base, days));
+    }
+
+    /**
+     * 取得基準日之後 (不含基準日) 的下一個上班日。
+     *
+     * @param date 基準日 (格式: yyyyMMdd)
+     * @return 推算結果
+     * @throws BadRequestException       當日期格式錯誤時
+     * @throws ResourceNotFoundException 當推算結果超出假日資料範圍時
+     */
+    @GetMapping("/working-days/next")
+    public WorkingDayResult nextWorkingDay(@RequestParam String date) {
+        LocalDate base = parseDate(date);
+        return toWorkingDayResult(base, 1, workingDayCalculator.nextWorkingDay(base));
+    }
+
     /**
-     * 查詢即時停班停課資訊 (台北市全區)。
-     * 
+     * 查詢即時停班停課資訊。
+     *
+     * <p>
+     * 未指定縣市時為台北市全區；指定行政區時一併回傳該縣市的全區警報。
+     * 縣市與行政區名稱的「台」「臺」視為相同。
+     * </p>
+     *
+     * @param city     縣市名稱 (例如: 臺北市)
+     * @param district 行政區名稱 (例如: 北投區)
      * @return 符合條件的 NCDR 警報資料列表
      */
     @GetMapping("/realtime")
-    public List<NcdrEntry> getRealTimeHolidays() {
-        return realTimeHolidayService.getRealTimeHolidays();
+    public List<NcdrEntry> getRealTimeHolidays(@RequestParam(required = false) String city,
+            @RequestParam(required = false) String district) {
+        return realTimeHolidayService.getRealTimeHolidays(city, district);
     }
 
     /**
      * 下載該年份的假日資料 PDF。
      *
-     * @param year 西元年份
-     * @return PDF 檔案串流
-     * @throws IOException 當 PDF 產生失敗時
+     * <p>
+     * ETag 由年度資料內容雜湊與 PDF 版面版本組成，條件式請求命中時不會產生 PDF。
+     * 產生後的 PDF 以相同組合為 Key 寫入 {@link PdfCache} 的快取檔案，資料未變更時不會重新產生。
+     * 快取未命中時交由 {@link PdfRenderExecutor} 以專用執行緒非同步產生，不佔用請求執行緒；
+     * 產生佇列已滿時回應 429。
+     * 回應內容由快取檔案以 {@link FileChannel#transferTo} 串流輸出，不在 heap 中保留整份文件。
+     * </p>
+     *
+     * @param year       西元年份
+     * @param webRequest 目前的請求 (用於條件式請求判斷)
+     * @return PDF 檔案串流，未變更時回傳 null (304 Not Modified)
+     * @throws TooManyRequestsException 當 PDF 產生佇列已滿時
      */
     @GetMapping("/{year}/pdf")
-    public ResponseEntity<byte[]> downloadPdf(@PathVariable String year) throws IOException {
-        List<Holiday> holidays = getHolidaysByYear(year);
-        byte[] pdfBytes = pdfService.generateHolidayPdf(year, holidays);
+    public DeferredResult<ResponseEntity<StreamingResponseBody>> downloadPdf(@PathVariable String year,
+            WebRequest webRequest) {
+        validateYear(year);
+        HolidayJsonCache.EncodedJson json = holidayJsonCache.getYear(Integer.parseInt(year));
+        String etag = "\"" + json.etag() + "-pdf-v" + PdfService.TEMPLATE_VERSION + "\"";
+        if (webRequest.checkNotModified(etag, json.lastModified())) {
+            return null;
+        }
+
+        PdfCache.Key key = new PdfCache.Key(json.source().getYear(), json.etag(), PdfService.TEMPLATE_VERSION);
+        Callable<PdfCache.CachedPdf> render = () -> pdfCache.store(key,
+                out -> pdfService.writeHolidayPdf(year, json.source().toHolidays(), out));
+        DeferredResult<ResponseEntity<StreamingResponseBody>> result = new DeferredResult<>();
+        PdfRelease release = new PdfRelease();
+        // 串流輸出階段結束 (含逾時、連線中斷) 時釋放；未進入串流輸出即結束時由 DeferredResult 釋放
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(PdfRelease.class, release);
+        result.onCompletion(release::release);
+
+        PdfCache.CachedPdf cached = pdfCache.get(key);
+        if (cached != null) {
+            if (Files.isRegularFile(cached.file())) {
+                setPdfResult(result, release, year, cached);
+                return result;
+            }
+            cached.release();
+            log.debug("{} 年度 PDF 快取檔案已被淘汰，重新產生。", year);
+        }
+        renderPdf(year, key, render, true).whenComplete((pdf, failure) -> {
+            if (failure != null) {
+                result.setErrorResult(failure instanceof CompletionException ? failure.getCause() : failure);
+            } else {
+                setPdfResult(result, release, year, pdf);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 交由 {@link PdfRenderExecutor} 產生 PDF。
+     *
+     * <p>
+     * 產生完成後、回應前快取項目即被淘汰時，重新產生一次。
+     * </p>
+     */
+    private CompletableFuture<PdfCache.CachedPdf> renderPdf(String year, PdfCache.Key key,
+            Callable<PdfCache.CachedPdf> render, boolean retry) {
+        return pdfRenderExecutor.submit(key, render).thenCompose(pdf -> {
+            if (Files.isRegularFile(pdf.file())) {
+                return CompletableFuture.completedFuture(pdf);
+            }
+            pdf.release();
+            if (!retry) {
+                throw new UncheckedIOException(new NoSuchFileException(pdf.file().toString(), null,
+                        year + " 年度 PDF 快取檔案已被淘汰"));
+            }
+            return renderPdf(year, key, render, false);
+        });
+    }
+
+    /**
+     * 設定 PDF 下載回應；請求已逾時或結束 (結果不再被採用) 時直接釋放。
+     */
+    private void setPdfResult(DeferredResult<ResponseEntity<StreamingResponseBody>> result, PdfRelease release,
+            String year, PdfCache.CachedPdf pdf) {
+        release.hold(pdf);
+        if (!result.setResult(toPdfResponse(year, pdf))) {
+            release.release();
+        }
+    }
+
+    /**
+     * 建立 PDF 下載回應。
+     *
+     * <p>
+     * 檔案於串流輸出時才開啟，輸出未執行 (逾時、連線中斷) 時不會留下未關閉的檔案。
+     * {@link PdfCache.CachedPdf#release()} 由 {@link PdfRelease} 於非同步處理結束時呼叫，
+     * 暫時檔案於共用同一次產生結果的最後一個請求結束後才刪除。
+     * </p>
+     */
+    private ResponseEntity<StreamingResponseBody> toPdfResponse(String year, PdfCache.CachedPdf pdf) {
+        StreamingResponseBody body = out -> {
+            try (FileChannel channel = FileChannel.open(pdf.file(), StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(out);
+                long position = 0;
+                long size = channel.size();
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+            }
+        };
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=holiday-" + year + ".pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(pdfBytes);
+                .contentLength(pdf.size())
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+
+    /**
+     * 檢查年份參數格式。
+     *
+     * @param year 年份字串
+     * @throws ResourceNotFoundException 當年份格式錯誤時
+     */
+    private void validateYear(String year) {
+        // Validate input format to prevent path traversal
+        if (!year.matches("^\\d{4}$")) {
+            throw new ResourceNotFoundException("年份格式錯誤，僅允許 4 位數字");
+        }
+    }
+
+    /**
+     * 解析 yyyyMMdd 格式的日期參數。
+     *
+     * @param value 日期字串
+     * @return 日期
+     * @throws BadRequestException 當日期格式錯誤時
+     */
+    private LocalDate parseDate(String value) {
+        if (!value.matches("^\\d{8}$")) {
+            throw new BadRequestException("日期格式錯誤，僅允許 yyyyMMdd: " + value);
+        }
+        try {
+            return LocalDate.parse(value, DATE_PARAM_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("日期不存在: " + value, e);
+        }
+    }
+
+    /**
+     * 建立上班日推算結果。
+     */
+    private WorkingDayResult toWorkingDayResult(LocalDate base, int days, LocalDate result) {
+        return WorkingDayResult.builder()
+                .date(base.format(DATE_PARAM_FORMAT))
+                .days(days)
+                .result(result.format(DATE_PARAM_FORMAT))
+                .build();
+    }
+
+    /**
+     * 檢查日期區間起訖順序。
+     *
+     * @throws BadRequestException 當起始日期晚於結束日期時
+     */
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("起始日期不可晚於結束日期");
+        }
+    }
+
+    /**
+     * 請求結束時釋放下載的 PDF (只釋放一次)。
+     *
+     * <p>
+     * 串流輸出階段以 {@link CallableProcessingInterceptor#afterCompletion} 釋放，
+     * 包含輸出完成、逾時取消與連線中斷；尚未進入串流輸出即結束的請求由
+     * {@link DeferredResult#onCompletion(Runnable)} 釋放。
+     * </p>
+     */
+    private static final class PdfRelease implements CallableProcessingInterceptor {
+
+        /** 尚未釋放的 PDF (未取得或已釋放時為 null) */
+        private final AtomicReference<PdfCache.CachedPdf> pdf = new AtomicReference<>();
+
+        void hold(PdfCache.CachedPdf held) {
+            pdf.set(held);
+        }
+
+        void release() {
+            PdfCache.CachedPdf held = pdf.getAndSet(null);
+            if (held != null) {
+                held.release();
+            }
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            release();
+        }
     }
 }
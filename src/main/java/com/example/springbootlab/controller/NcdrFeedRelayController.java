@@ -0,0 +1,64 @@
+package com.example.springbootlab.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.example.springbootlab.exception.BadGatewayException;
+import com.example.springbootlab.model.ncdr.NcdrFeed;
+import com.example.springbootlab.service.NcdrFeedService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * NCDR 停班停課 Feed 中繼 API 控制器。
+ *
+ * <p>
+ * 取代瀏覽器經由第三方 CORS Proxy 各自抓取 NCDR：回傳 {@link NcdrFeedService} 保存於記憶體的原始 Feed，
+ * 所有用戶端 (以及即時查詢) 共用同一份內容，上游負載與頁面延遲不再隨使用者人數增加。
+ * </p>
+ *
+ * <p>
+ * <ul>
+ * <li>快取到期後先回傳最後一次成功的內容，由背景的單一請求重新驗證 (見 {@link NcdrFeedService})，請求執行緒不等待上游。</li>
+ * <li>回應帶有內容雜湊 ETag，用戶端條件式請求命中時回傳 304。</li>
+ * <li>從未成功抓取時回應 502。</li>
+ * </ul>
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@RestController
+@RequestMapping("/api/ncdr")
+@RequiredArgsConstructor
+public class NcdrFeedRelayController {
+
+    /** NCDR Feed 抓取服務 */
+    private final NcdrFeedService ncdrFeedService;
+
+    /**
+     * 取得 NCDR 停班停課 JSON Atom Feed (原始內容)。
+     *
+     * @param webRequest 目前的請求 (用於條件式請求判斷)
+     * @return NCDR Feed，未變更時回傳 null (304 Not Modified)
+     * @throws BadGatewayException 當上游請求失敗且沒有可回傳的內容時
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<byte[]> getFeed(WebRequest webRequest) {
+        NcdrFeed feed = ncdrFeedService.getFeed();
+        if (feed == null) {
+            throw new BadGatewayException("無法取得 NCDR 停班停課資料");
+        }
+        if (webRequest.checkNotModified(feed.etag(), feed.changedAtMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(feed.contentType())
+                .cacheControl(CacheControl.noCache())
+                .body(feed.body());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.springbootlab.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.springbootlab.service.RealTimeAlertBroadcaster;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 即時停班停課推播 API 控制器。
+ *
+ * <p>
+ * 以 Server-Sent Events 推送停班停課警報的變動，取代瀏覽器輪詢 {@code /api/holidays/realtime}。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@RequiredArgsConstructor
+@RestController
+@ConditionalOnWebApplication
+@RequestMapping("/api/holidays")
+public class RealTimeHolidayStreamController {
+
+    /** 即時停班停課推播 */
+    private final RealTimeAlertBroadcaster realTimeAlertBroadcaster;
+
+    /**
+     * 訂閱即時停班停課警報。
+     *
+     * <p>
+     * 連線後立即送出一次目前的狀態 ({@code alerts} 事件，內容與 {@code /api/holidays/realtime} 相同)，
+     * 之後只在內容變動時推送。
+     * </p>
+     *
+     * @param city     縣市名稱 (例如: 臺北市，未指定時為臺北市)
+     * @param district 行政區名稱 (例如: 北投區)
+     * @return SSE 連線
+     */
+    @GetMapping(path = "/realtime/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRealTimeHolidays(@RequestParam(required = false) String city,
+            @RequestParam(required = false) String district) {
+        return realTimeAlertBroadcaster.subscribe(city, district);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.springbootlab.event;
+
+/**
+ * 年度假日資料變更事件。
+ *
+ * <p>
+ * 當年度 JSON 檔案被改寫後發布，供各快取清除該年度的衍生資料。
+ * </p>
+ *
+ * @param year 西元年份
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+public record HolidayDataChangedEvent(int year) {
+}
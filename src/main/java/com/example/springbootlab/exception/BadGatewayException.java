@@ -0,0 +1,38 @@
+package com.example.springbootlab.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 上游服務無法使用例外。
+ *
+ * <p>
+ * 當代理的上游服務 (例如 NCDR) 請求失敗且沒有可回傳的快取時拋出此例外，
+ * 自動回應 HTTP 502 Bad Gateway 狀態碼。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class BadGatewayException extends RuntimeException {
+
+    /**
+     * 建立上游服務無法使用例外。
+     *
+     * @param message 錯誤訊息
+     */
+    public BadGatewayException(String message) {
+        super(message);
+    }
+
+    /**
+     * 建立上游服務無法使用例外（含原因）。
+     *
+     * @param message 錯誤訊息
+     * @param cause   原始例外
+     */
+    public BadGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.springbootlab.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 請求參數錯誤例外。
+ *
+ * <p>
+ * 當請求參數格式錯誤或超出允許範圍時拋出此例外，
+ * 自動回應 HTTP 400 Bad Request 狀態碼。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException {
+
+    /**
+     * 建立請求參數錯誤例外。
+     *
+     * @param message 錯誤訊息
+     */
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * 建立請求參數錯誤例外（含原因）。
+     *
+     * @param message 錯誤訊息
+     * @param cause   原始例外
+     */
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
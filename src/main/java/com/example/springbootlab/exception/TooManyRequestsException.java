@@ -0,0 +1,44 @@
+package com.example.springbootlab.exception;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 請求過多例外。
+ *
+ * <p>
+ * 當伺服器資源已滿載 (例如 PDF 產生佇列已滿) 時拋出此例外，
+ * 自動回應 HTTP 429 Too Many Requests 狀態碼，並提示用戶端稍後重試。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+
+    /** 建議的重試等待時間 */
+    private final Duration retryAfter;
+
+    /**
+     * 建立請求過多例外。
+     *
+     * @param message    錯誤訊息
+     * @param retryAfter 建議的重試等待時間
+     */
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * 取得建議的重試等待時間。
+     *
+     * @return 重試等待時間
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.springbootlab.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 日期區間上班日統計模型。
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessDayCount {
+
+    /** 起始日期 (含，格式: yyyyMMdd) */
+    private String from;
+
+    /** 結束日期 (含，格式: yyyyMMdd) */
+    private String to;
+
+    /** 區間總天數 */
+    private long calendarDays;
+
+    /** 區間內上班日數 */
+    private long businessDays;
+
+    /** 區間內放假日數 */
+    private long holidays;
+}
@@ -0,0 +1,41 @@
+package com.example.springbootlab.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 單日日曆狀態模型。
+ *
+ * <p>
+ * 由日曆索引查詢產生，涵蓋任一日期 (包含未列於原始資料中的一般上班日)。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarDay {
+
+    /** 日期 (格式: yyyyMMdd，例如: 20250602) */
+    private String date;
+
+    /** 是否為上班日 (true: 上班, false: 放假) */
+    private boolean workingDay;
+
+    /** 節日名稱 (無原始資料時為 null) */
+    private String name;
+
+    /** 假日類別 (無原始資料時為 null) */
+    private String holidayCategory;
+
+    /** 說明 (無原始資料時為 null) */
+    private String description;
+
+    /** 備註 (無原始資料時為 null) */
+    private String note;
+}
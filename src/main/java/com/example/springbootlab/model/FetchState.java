@@ -0,0 +1,46 @@
+package com.example.springbootlab.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * OpenData 抓取狀態。
+ *
+ * <p>
+ * 記錄上次成功抓取時來源回應的驗證標頭與內容雜湊，
+ * 供下次抓取送出條件式請求，並只改寫記錄內容有變動的年度。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FetchState {
+
+    /** 資料來源 URL (來源變更時不沿用驗證標頭) */
+    private String url;
+
+    /** 輸出目錄絕對路徑 (目錄變更時不沿用驗證標頭) */
+    private String outputDir;
+
+    /** 來源回應的 ETag */
+    private String etag;
+
+    /** 來源回應的 Last-Modified */
+    private String lastModified;
+
+    /** 原始 CSV 內容雜湊 (SHA-256) */
+    private String contentHash;
+
+    /** 各年度記錄雜湊 (Key: 年份) */
+    @Builder.Default
+    private Map<String, String> yearHashes = new TreeMap<>();
+}
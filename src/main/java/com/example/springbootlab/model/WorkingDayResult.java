@@ -0,0 +1,28 @@
+package com.example.springbootlab.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 上班日推算結果模型。
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkingDayResult {
+
+    /** 基準日期 (格式: yyyyMMdd) */
+    private String date;
+
+    /** 推算的上班日數 (負數代表往前推算) */
+    private int days;
+
+    /** 推算結果日期 (格式: yyyyMMdd) */
+    private String result;
+}
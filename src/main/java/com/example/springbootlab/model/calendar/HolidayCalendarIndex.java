@@ -0,0 +1,262 @@
+package com.example.springbootlab.model.calendar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 多年度日曆索引快照。
+ *
+ * <p>
+ * 以「年份 - 最小年份」為陣列位移保存各年度的 {@link YearCalendar}，
+ * 年份與 epoch day 的查詢皆為 O(1)。
+ * 並預先計算各年度之前的上班日累計數與缺漏年份累計數，
+ * 使跨年度的上班日計算同樣為 O(1)。
+ * 此類別建立後不可變，更新時一律產生新快照 (copy-on-write)。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+public final class HolidayCalendarIndex {
+
+    /** 空索引 */
+    public static final HolidayCalendarIndex EMPTY = new HolidayCalendarIndex(List.of());
+
+    /** 最小年份 */
+    private final int minYear;
+
+    /** 依年份位移排列的年度索引 (缺漏年份為 null) */
+    private final YearCalendar[] years;
+
+    /** 各年份位移之前的上班日累計數 (長度為 years.length + 1) */
+    private final long[] workingDaysBeforeYear;
+
+    /** 各年份位移之前的缺漏年份累計數 (長度為 years.length + 1) */
+    private final int[] missingBeforeYear;
+
+    /**
+     * 建立多年度日曆索引。
+     *
+     * @param calendars 各年度索引 (年份不可重複)
+     */
+    public HolidayCalendarIndex(Collection<YearCalendar> calendars) {
+        if (calendars.isEmpty()) {
+            this.minYear = 0;
+            this.years = new YearCalendar[0];
+            this.workingDaysBeforeYear = new long[1];
+            this.missingBeforeYear = new int[1];
+            return;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (YearCalendar calendar : calendars) {
+            min = Math.min(min, calendar.getYear());
+            max = Math.max(max, calendar.getYear());
+        }
+        this.minYear = min;
+        this.years = new YearCalendar[max - min + 1];
+        for (YearCalendar calendar : calendars) {
+            if (years[calendar.getYear() - min] != null) {
+                throw new IllegalArgumentException("年份重複: " + calendar.getYear());
+            }
+            years[calendar.getYear() - min] = calendar;
+        }
+
+        this.workingDaysBeforeYear = new long[years.length + 1];
+        this.missingBeforeYear = new int[years.length + 1];
+        for (int i = 0; i < years.length; i++) {
+            boolean missing = years[i] == null;
+            workingDaysBeforeYear[i + 1] = workingDaysBeforeYear[i] + (missing ? 0 : years[i].getWorkingDayCount());
+            missingBeforeYear[i + 1] = missingBeforeYear[i] + (missing ? 1 : 0);
+        }
+    }
+
+    /**
+     * 取得指定年度的索引。
+     *
+     * @param year 西元年份
+     * @return 年度索引，不存在時回傳 null
+     */
+    public YearCalendar getYear(int year) {
+        int offset = year - minYear;
+        return offset >= 0 && offset < years.length ? years[offset] : null;
+    }
+
+    /**
+     * 取得涵蓋指定 epoch day 的年度索引。
+     *
+     * @param epochDay epoch day
+     * @return 年度索引，不存在時回傳 null
+     */
+    public YearCalendar forEpochDay(int epochDay) {
+        if (years.length == 0) {
+            return null;
+        }
+        // 以 365 天估算年份位移，再向前後校正 (最多一步)
+        int firstEpochDay = YearCalendar.firstEpochDayOf(minYear);
+        int offset = Math.floorDiv(epochDay - firstEpochDay, 365);
+        if (offset > 0 && epochDay < YearCalendar.firstEpochDayOf(minYear + offset)) {
+            offset--;
+        }
+        return getYear(minYear + offset);
+    }
+
+    /**
+     * 判斷指定年份區間是否皆已載入 (無缺漏年份)。
+     *
+     * @param fromYear 起始年份 (含)
+     * @param toYear   結束年份 (含)
+     * @return 是否完整涵蓋
+     */
+    public boolean covers(int fromYear, int toYear) {
+        int from = fromYear - minYear;
+        int to = toYear - minYear;
+        if (years.length == 0 || from < 0 || to >= years.length || from > to) {
+            return false;
+        }
+        return missingBeforeYear[to + 1] - missingBeforeYear[from] == 0;
+    }
+
+    /**
+     * 計算兩日期 (皆含) 之間的上班日數。
+     *
+     * <p>
+     * 以「最小年份 1 月 1 日起的上班日前綴和」相減求得，與區間長度無關。
+     * 呼叫端須先以 {@link #covers(int, int)} 確認區間內年份皆已載入。
+     * </p>
+     *
+     * @param fromEpochDay 起始 epoch day (含)
+     * @param toEpochDay   結束 epoch day (含)
+     * @return 上班日數
+     */
+    public long countWorkingDays(int fromEpochDay, int toEpochDay) {
+        YearCalendar to = forEpochDay(toEpochDay);
+        long inclusiveEnd = workingDaysBefore(to, toEpochDay) + (to.isWorkingDay(toEpochDay) ? 1 : 0);
+        return inclusiveEnd - workingDaysBefore(forEpochDay(fromEpochDay), fromEpochDay);
+    }
+
+    /**
+     * 計算最小年份 1 月 1 日起至指定日期 (不含) 的上班日數 (全域上班日序號)。
+     *
+     * @param epochDay epoch day (所屬年份須已載入)
+     * @return 上班日數
+     * @throws IllegalArgumentException 當所屬年份未載入時
+     */
+    public long workingDaysBefore(int epochDay) {
+        YearCalendar calendar = forEpochDay(epochDay);
+        if (calendar == null) {
+            throw new IllegalArgumentException("日期所屬年份未載入: " + YearCalendar.formatEpochDay(epochDay));
+        }
+        return workingDaysBefore(calendar, epochDay);
+    }
+
+    /**
+     * @return 所有已載入年份的上班日總數
+     */
+    public long getTotalWorkingDays() {
+        return workingDaysBeforeYear[years.length];
+    }
+
+    /**
+     * 取得全域第 n 個 (由 0 起算) 上班日 (select)。
+     *
+     * <p>
+     * 先以二分搜尋在各年度的上班日累計數中找出所在年度，
+     * 再交由 {@link YearCalendar#selectWorkingDay(int)} 於年度內定位。
+     * </p>
+     *
+     * @param rank 全域上班日序號 (0 ≤ rank &lt; {@link #getTotalWorkingDays()})
+     * @return 該上班日的 epoch day
+     */
+    public int selectWorkingDay(long rank) {
+        if (rank < 0 || rank >= getTotalWorkingDays()) {
+            throw new IndexOutOfBoundsException("上班日序號超出範圍: " + rank);
+        }
+        // 找出最後一個 workingDaysBeforeYear[i] <= rank 的位移，
+        // 由於 rank < workingDaysBeforeYear[i + 1]，該年度必定存在且含有上班日
+        int low = 0;
+        int high = years.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (workingDaysBeforeYear[mid] <= rank) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return years[low].selectWorkingDay((int) (rank - workingDaysBeforeYear[low]));
+    }
+
+    /**
+     * 取得已載入的年份 (由小到大)。
+     *
+     * @return 年份列表
+     */
+    public List<Integer> getYears() {
+        List<Integer> result = new ArrayList<>();
+        for (YearCalendar calendar : years) {
+            if (calendar != null) {
+                result.add(calendar.getYear());
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 產生以指定年度取代 (或新增) 後的新快照。
+     *
+     * @param calendar 年度索引
+     * @return 新快照
+     */
+    public HolidayCalendarIndex withYear(YearCalendar calendar) {
+        List<YearCalendar> calendars = new ArrayList<>(all());
+        calendars.removeIf(existing -> existing.getYear() == calendar.getYear());
+        calendars.add(calendar);
+        return new HolidayCalendarIndex(calendars);
+    }
+
+    /**
+     * 產生移除指定年度後的新快照。
+     *
+     * @param year 西元年份
+     * @return 新快照
+     */
+    public HolidayCalendarIndex withoutYear(int year) {
+        List<YearCalendar> calendars = new ArrayList<>(all());
+        calendars.removeIf(existing -> existing.getYear() == year);
+        return new HolidayCalendarIndex(calendars);
+    }
+
+    /**
+     * 估算索引佔用的記憶體 (位元組，不含共用字串表)。
+     *
+     * @return 估算位元組數
+     */
+    public long estimatedBytes() {
+        long bytes = (long) Long.BYTES * (years.length + workingDaysBeforeYear.length)
+                + (long) Integer.BYTES * missingBeforeYear.length;
+        for (YearCalendar calendar : all()) {
+            bytes += calendar.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 最小年份 1 月 1 日起至指定日期 (不含) 的上班日數。
+     */
+    private long workingDaysBefore(YearCalendar calendar, int epochDay) {
+        return workingDaysBeforeYear[calendar.getYear() - minYear] + calendar.workingDaysBefore(epochDay);
+    }
+
+    private List<YearCalendar> all() {
+        List<YearCalendar> result = new ArrayList<>();
+        for (YearCalendar calendar : years) {
+            if (calendar != null) {
+                result.add(calendar);
+            }
+        }
+        return result;
+    }
+}
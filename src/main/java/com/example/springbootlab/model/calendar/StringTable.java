@@ -0,0 +1,99 @@
+package com.example.springbootlab.model.calendar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 共用字串表。
+ *
+ * <p>
+ * 將節日名稱、類別、說明等重複性高的字串集中儲存，
+ * 各年度的 {@link YearCalendar} 僅保存 int 編號，避免每筆資料各自持有字串參考。
+ * </p>
+ *
+ * <p>
+ * 字串表為只增不減 (append-only)，寫入以 synchronized 保護；
+ * 讀取端取得的編號一律來自已安全發佈的 {@link YearCalendar}，因此讀取不需加鎖。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+public final class StringTable {
+
+    /** 代表 null 的編號 */
+    public static final int NULL_ID = -1;
+
+    /** 初始容量 */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** 字串 → 編號 (僅於 synchronized 區塊內存取) */
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    /** 編號 → 字串 */
+    private volatile String[] values = new String[INITIAL_CAPACITY];
+
+    /** 目前已使用的編號數量 */
+    private int size;
+
+    /**
+     * 取得字串對應的編號，若尚未登錄則新增。
+     *
+     * @param value 字串 (可為 null)
+     * @return 字串編號，null 時回傳 {@link #NULL_ID}
+     */
+    public synchronized int intern(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = value;
+        values = current;
+        ids.put(value, size);
+        return size++;
+    }
+
+    /**
+     * 依編號取得字串。
+     *
+     * @param id 字串編號
+     * @return 字串，編號為 {@link #NULL_ID} 時回傳 null
+     */
+    public String get(int id) {
+        return id == NULL_ID ? null : values[id];
+    }
+
+    /**
+     * 取得已登錄的字串數量。
+     *
+     * @return 字串數量
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 估算字串表佔用的記憶體 (位元組)。
+     *
+     * <p>
+     * 以 UTF-16 字元數粗估，僅供日誌觀察用途。
+     * </p>
+     *
+     * @return 估算位元組數
+     */
+    public synchronized long estimatedBytes() {
+        long bytes = (long) values.length * Integer.BYTES;
+        for (int i = 0; i < size; i++) {
+            bytes += 2L * values[i].length();
+        }
+        return bytes;
+    }
+}
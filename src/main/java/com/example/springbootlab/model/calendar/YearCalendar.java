@@ -0,0 +1,400 @@
+package com.example.springbootlab.model.calendar;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.example.springbootlab.model.Holiday;
+
+/**
+ * 單一年度的精簡日曆索引。
+ *
+ * <p>
+ * 以 epoch day 為座標，將一年內每一天編碼為位元：
+ * <ul>
+ * <li>{@code entryBits}: 該日是否有原始資料 (節日、週末、補班日等)</li>
+ * <li>{@code holidayBits}: 該日是否放假</li>
+ * </ul>
+ * 有資料的日期依日期排序後，以 {@code entryBits} 的 rank (前綴位元數) 對應到資料列，
+ * 名稱、類別等欄位則以 {@link StringTable} 編號保存。
+ * 因此任一日期的查詢皆為 O(1) 陣列存取。
+ * </p>
+ *
+ * <p>
+ * 另外以每個 word 之前的上班日累計數 ({@code workingRank}) 作為上班日的前綴和，
+ * 任一日期之前的上班日數同樣為 O(1)。
+ * </p>
+ *
+ * <p>
+ * 未列於原始資料中的日期視為一般上班日。
+ * 此類別建立後不可變，可安全地於多執行緒間共用。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+public final class YearCalendar {
+
+    /** 原始資料的日期格式 (yyyyMMdd) */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /** 西元年份 */
+    private final int year;
+
+    /** 該年 1 月 1 日的 epoch day */
+    private final int firstEpochDay;
+
+    /** 該年天數 (365 或 366) */
+    private final int length;
+
+    /** 有原始資料的日期位元 */
+    private final long[] entryBits;
+
+    /** 放假日位元 */
+    private final long[] holidayBits;
+
+    /** 每個 word 之前的 entryBits 累計數量 */
+    private final int[] entryRank;
+
+    /** 每個 word 之前的上班日累計數 (上班日前綴和) */
+    private final int[] workingRank;
+
+    /** 全年上班日數 */
+    private final int workingDayCount;
+
+    /** 各資料列的名稱編號 */
+    private final int[] nameIds;
+
+    /** 各資料列的類別編號 */
+    private final int[] categoryIds;
+
+    /** 各資料列的說明編號 */
+    private final int[] descriptionIds;
+
+    /** 各資料列的備註編號 */
+    private final int[] noteIds;
+
+    /** 共用字串表 */
+    private final StringTable strings;
+
+    private YearCalendar(int year, List<Holiday> sorted, StringTable strings) {
+        LocalDate first = LocalDate.of(year, 1, 1);
+        this.year = year;
+        this.firstEpochDay = firstEpochDayOf(year);
+        this.length = first.lengthOfYear();
+        this.strings = strings;
+
+        int words = (length + Long.SIZE - 1) / Long.SIZE;
+        this.entryBits = new long[words];
+        this.holidayBits = new long[words];
+        this.entryRank = new int[words];
+        this.workingRank = new int[words];
+
+        int count = sorted.size();
+        this.nameIds = new int[count];
+        this.categoryIds = new int[count];
+        this.descriptionIds = new int[count];
+        this.noteIds = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            Holiday holiday = sorted.get(i);
+            int dayOfYear = parseEpochDay(holiday.getDate()) - firstEpochDay;
+            entryBits[dayOfYear >>> 6] |= 1L << dayOfYear;
+            if (holiday.isHoliday()) {
+                holidayBits[dayOfYear >>> 6] |= 1L << dayOfYear;
+            }
+            nameIds[i] = strings.intern(holiday.getName());
+            categoryIds[i] = strings.intern(holiday.getHolidayCategory());
+            descriptionIds[i] = strings.intern(holiday.getDescription());
+            noteIds[i] = strings.intern(holiday.getNote());
+        }
+
+        int rank = 0;
+        int working = 0;
+        for (int w = 0; w < words; w++) {
+            entryRank[w] = rank;
+            rank += Long.bitCount(entryBits[w]);
+            workingRank[w] = working;
+            working += Long.bitCount(workingBits(w));
+        }
+        this.workingDayCount = working;
+    }
+
+    /**
+     * 由年度假日資料建立日曆索引。
+     *
+     * @param year     西元年份
+     * @param holidays 該年度的假日資料 (順序不拘)
+     * @param strings  共用字串表
+     * @return 年度日曆索引
+     * @throws IllegalArgumentException 當資料日期格式錯誤、不屬於該年度或重複時
+     */
+    public static YearCalendar of(int year, List<Holiday> holidays, StringTable strings) {
+        List<Holiday> sorted = new ArrayList<>(holidays);
+        sorted.sort(Comparator.comparing(Holiday::getDate, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        String previous = null;
+        for (Holiday holiday : sorted) {
+            String date = holiday.getDate();
+            if (date == null || date.length() != 8 || !date.startsWith(String.valueOf(year))) {
+                throw new IllegalArgumentException("日期不屬於 " + year + " 年度: " + date);
+            }
+            if (date.equals(previous)) {
+                throw new IllegalArgumentException("日期重複: " + date);
+            }
+            previous = date;
+        }
+        return new YearCalendar(year, sorted, strings);
+    }
+
+    /**
+     * 將 yyyyMMdd 格式的日期字串轉為 epoch day。
+     *
+     * @param date 日期字串
+     * @return epoch day
+     * @throws IllegalArgumentException 當日期格式錯誤時
+     */
+    public static int parseEpochDay(String date) {
+        try {
+            return (int) LocalDate.parse(date, DATE_FORMAT).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("日期格式錯誤: " + date, e);
+        }
+    }
+
+    /**
+     * 計算指定年份 1 月 1 日的 epoch day (純整數運算，不建立物件)。
+     *
+     * @param year 西元年份
+     * @return epoch day
+     */
+    public static int firstEpochDayOf(int year) {
+        return 365 * (year - 1970) + leapYearsBefore(year) - leapYearsBefore(1970);
+    }
+
+    /**
+     * 將 epoch day 轉為 yyyyMMdd 格式的日期字串。
+     *
+     * @param epochDay epoch day
+     * @return 日期字串
+     */
+    public static String formatEpochDay(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).format(DATE_FORMAT);
+    }
+
+    /**
+     * @return 西元年份
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return 該年 1 月 1 日的 epoch day
+     */
+    public int getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    /**
+     * @return 該年天數
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return 原始資料筆數
+     */
+    public int getEntryCount() {
+        return nameIds.length;
+    }
+
+    /**
+     * 判斷 epoch day 是否落在本年度。
+     *
+     * @param epochDay epoch day
+     * @return 是否屬於本年度
+     */
+    public boolean contains(int epochDay) {
+        int dayOfYear = epochDay - firstEpochDay;
+        return dayOfYear >= 0 && dayOfYear < length;
+    }
+
+    /**
+     * 判斷指定日期是否放假。
+     *
+     * @param epochDay epoch day (須屬於本年度)
+     * @return 是否放假
+     */
+    public boolean isHoliday(int epochDay) {
+        int dayOfYear = checkedDayOfYear(epochDay);
+        return (holidayBits[dayOfYear >>> 6] & (1L << dayOfYear)) != 0;
+    }
+
+    /**
+     * 判斷指定日期是否為上班日。
+     *
+     * @param epochDay epoch day (須屬於本年度)
+     * @return 是否為上班日
+     */
+    public boolean isWorkingDay(int epochDay) {
+        return !isHoliday(epochDay);
+    }
+
+    /**
+     * @return 全年上班日數
+     */
+    public int getWorkingDayCount() {
+        return workingDayCount;
+    }
+
+    /**
+     * 計算本年度 1 月 1 日起至指定日期 (不含) 之間的上班日數。
+     *
+     * @param epochDay epoch day (須屬於本年度)
+     * @return 上班日數
+     */
+    public int workingDaysBefore(int epochDay) {
+        int dayOfYear = checkedDayOfYear(epochDay);
+        int word = dayOfYear >>> 6;
+        return workingRank[word] + Long.bitCount(workingBits(word) & ((1L << dayOfYear) - 1));
+    }
+
+    /**
+     * 取得本年度第 n 個 (由 0 起算) 上班日 (rank 的反運算)。
+     *
+     * <p>
+     * 先以 {@code workingRank} 找出所在 word，再於 word 內以位元運算定位，
+     * 不需逐日掃描。
+     * </p>
+     *
+     * @param rank 上班日序號 (0 ≤ rank &lt; {@link #getWorkingDayCount()})
+     * @return 該上班日的 epoch day
+     */
+    public int selectWorkingDay(int rank) {
+        if (rank < 0 || rank >= workingDayCount) {
+            throw new IndexOutOfBoundsException("上班日序號超出範圍: " + rank);
+        }
+        int word = workingRank.length - 1;
+        while (workingRank[word] > rank) {
+            word--;
+        }
+        return firstEpochDay + (word << 6) + selectInWord(workingBits(word), rank - workingRank[word]);
+    }
+
+    /**
+     * 取得指定日期對應的資料列索引。
+     *
+     * @param epochDay epoch day (須屬於本年度)
+     * @return 資料列索引，無原始資料時回傳 -1
+     */
+    public int entryIndexOf(int epochDay) {
+        int dayOfYear = checkedDayOfYear(epochDay);
+        int word = dayOfYear >>> 6;
+        long bit = 1L << dayOfYear;
+        if ((entryBits[word] & bit) == 0) {
+            return -1;
+        }
+        return entryRank[word] + Long.bitCount(entryBits[word] & (bit - 1));
+    }
+
+    /**
+     * 將指定資料列還原為 {@link Holiday} 物件。
+     *
+     * @param entryIndex 資料列索引
+     * @return Holiday 物件 (每次呼叫皆為新實例)
+     */
+    public Holiday toHoliday(int entryIndex) {
+        int dayOfYear = selectEntry(entryIndex);
+        return Holiday.builder()
+                .date(formatEpochDay(firstEpochDay + dayOfYear))
+                .year(String.valueOf(year))
+                .name(strings.get(nameIds[entryIndex]))
+                .isHoliday((holidayBits[dayOfYear >>> 6] & (1L << dayOfYear)) != 0)
+                .holidayCategory(strings.get(categoryIds[entryIndex]))
+                .description(strings.get(descriptionIds[entryIndex]))
+                .note(strings.get(noteIds[entryIndex]))
+                .build();
+    }
+
+    /**
+     * 將整年度資料還原為 {@link Holiday} 列表 (依日期排序)。
+     *
+     * @return Holiday 列表
+     */
+    public List<Holiday> toHolidays() {
+        List<Holiday> holidays = new ArrayList<>(nameIds.length);
+        for (int i = 0; i < nameIds.length; i++) {
+            holidays.add(toHoliday(i));
+        }
+        return holidays;
+    }
+
+    /**
+     * 估算本索引佔用的記憶體 (位元組，不含共用字串表)。
+     *
+     * @return 估算位元組數
+     */
+    public long estimatedBytes() {
+        return (long) Long.BYTES * (entryBits.length + holidayBits.length)
+                + (long) Integer.BYTES * (entryRank.length + workingRank.length + 4L * nameIds.length);
+    }
+
+    /**
+     * 找出第 n 筆資料列對應的 day-of-year (rank 的反運算)。
+     */
+    private int selectEntry(int entryIndex) {
+        if (entryIndex < 0 || entryIndex >= nameIds.length) {
+            throw new IndexOutOfBoundsException("資料列索引超出範圍: " + entryIndex);
+        }
+        int word = entryRank.length - 1;
+        while (entryRank[word] > entryIndex) {
+            word--;
+        }
+        return (word << 6) + selectInWord(entryBits[word], entryIndex - entryRank[word]);
+    }
+
+    /**
+     * 取得 word 中第 n 個 (由 0 起算) 設定位元的位置。
+     *
+     * @param bits word
+     * @param n    位元序號
+     * @return 位元位置 (0-63)
+     */
+    static int selectInWord(long bits, int n) {
+        long remaining = bits;
+        for (int i = 0; i < n; i++) {
+            remaining &= remaining - 1;
+        }
+        return Long.numberOfTrailingZeros(remaining);
+    }
+
+    /**
+     * 取得第 w 個 word 的上班日位元 (超出年度天數的位元一律為 0)。
+     */
+    private long workingBits(int word) {
+        long bits = ~holidayBits[word];
+        int valid = length - (word << 6);
+        return valid >= Long.SIZE ? bits : bits & ((1L << valid) - 1);
+    }
+
+    /**
+     * 計算西元 1 年至指定年份 (不含) 之間的閏年數。
+     */
+    private static int leapYearsBefore(int year) {
+        int y = year - 1;
+        return Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400);
+    }
+
+    private int checkedDayOfYear(int epochDay) {
+        int dayOfYear = epochDay - firstEpochDay;
+        if (dayOfYear < 0 || dayOfYear >= length) {
+            throw new IllegalArgumentException("日期不屬於 " + year + " 年度: " + formatEpochDay(epochDay));
+        }
+        return dayOfYear;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.springbootlab.model.ncdr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * NCDR 停班停課警報索引快照。
+ *
+ * <p>
+ * 每次抓取 NCDR Feed 後解析一次，依「縣市 → 行政區」建立索引，
+ * 查詢任一縣市或行政區皆為 Map 查找，不再於每個請求比對摘要文字。
+ * 縣市與行政區名稱一律將「台」正規化為「臺」。
+ * 此類別建立後不可變，更新時一律產生新快照。
+ * </p>
+ *
+ * <p>
+ * 摘要格式為 {@code [停班停課通知]臺北市:今天停止上班、停止上課。} (全區)
+ * 或 {@code [停班停課通知]新北市瑞芳區:...} (特定行政區，多個行政區以「、」分隔)。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+public final class NcdrAlertIndex {
+
+    /** 空索引 */
+    public static final NcdrAlertIndex EMPTY = new NcdrAlertIndex(Map.of(), 0);
+
+    /** 各縣市警報 (Key: 正規化後的縣市名稱) */
+    private final Map<String, CityAlerts> cities;
+
+    /** 建立索引時的警報總筆數 (含無法解析地點者) */
+    private final int entryCount;
+
+    private NcdrAlertIndex(Map<String, CityAlerts> cities, int entryCount) {
+        this.cities = cities;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * 解析 NCDR 警報並建立索引。
+     *
+     * @param entries NCDR 警報列表
+     * @return 警報索引
+     */
+    public static NcdrAlertIndex of(List<NcdrEntry> entries) {
+        Builder builder = builder();
+        for (NcdrEntry entry : entries) {
+            builder.add(entry, parseLocation(entry));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 建立索引建構器 (供已解析發布地點的讀取器逐筆加入，避免重複解析)。
+     *
+     * @return 索引建構器
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 查詢縣市或行政區的停班停課警報。
+     *
+     * @param city     縣市名稱 (台/臺皆可)
+     * @param district 行政區名稱 (台/臺皆可)，未指定時只回傳全區警報
+     * @return 符合的警報列表；指定行政區時包含全區警報，無資料時回傳空列表
+     */
+    public List<NcdrEntry> find(String city, String district) {
+        CityAlerts alerts = city == null ? null : cities.get(normalize(city.trim()));
+        if (alerts == null) {
+            return List.of();
+        }
+        if (district == null || district.isBlank()) {
+            return alerts.cityWide();
+        }
+        return alerts.districts().getOrDefault(normalize(district.trim()), alerts.cityWide());
+    }
+
+    /**
+     * 取得有警報的縣市 (正規化後的名稱)。
+     *
+     * @return 縣市名稱集合
+     */
+    public Set<String> getCities() {
+        return cities.keySet();
+    }
+
+    /**
+     * 取得建立索引時的警報總筆數。
+     *
+     * @return 警報總筆數
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * 從警報摘要解析發布地點。
+     *
+     * @param entry NCDR 警報
+     * @return 發布地點；摘要不存在或格式不符時回傳 null
+     */
+    public static Location parseLocation(NcdrEntry entry) {
+        if (entry.getSummary() == null) {
+            return null;
+        }
+        return parseLocation(entry.getSummary().getText());
+    }
+
+    /**
+     * 從警報摘要文字解析發布地點。
+     *
+     * @param text 摘要文字 (summary 的 {@code #text})
+     * @return 發布地點；文字為 null 或格式不符時回傳 null
+     */
+    public static Location parseLocation(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        // 略過 "[停班停課通知]" 前綴，地點為冒號 (半形或全形) 之前的文字
+        int start = text.startsWith("[") ? text.indexOf(']') + 1 : 0;
+        int colon = indexOfColon(text, start);
+        while (start < colon && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        if (colon < 0 || colon - start < 3 || (text.charAt(start + 2) != '市' && text.charAt(start + 2) != '縣')) {
+            return null;
+        }
+        String city = normalize(text.substring(start, start + 3));
+
+        // 行政區以「、」「,」「，」或空白分隔
+        List<String> districts = List.of();
+        int from = start + 3;
+        for (int i = from; i <= colon; i++) {
+            if (i == colon || isDistrictSeparator(text.charAt(i))) {
+                if (i > from) {
+                    if (districts.isEmpty()) {
+                        districts = new ArrayList<>(2);
+                    }
+                    districts.add(normalize(text.substring(from, i)));
+                }
+                from = i + 1;
+            }
+        }
+        return new Location(city, districts.isEmpty() ? districts : List.copyOf(districts));
+    }
+
+    /**
+     * 將地名中的「台」正規化為「臺」。
+     *
+     * @param name 地名
+     * @return 正規化後的地名
+     */
+    public static String normalize(String name) {
+        return name.replace('台', '臺');
+    }
+
+    private static int indexOfColon(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ':' || c == '：') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDistrictSeparator(char c) {
+        return c == '、' || c == ',' || c == '，' || Character.isWhitespace(c);
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> result = new LinkedHashSet<>(first);
+        result.addAll(second);
+        return result;
+    }
+
+    /**
+     * 警報索引建構器。
+     */
+    public static final class Builder {
+
+        private final Map<String, List<NcdrEntry>> cityWide = new LinkedHashMap<>();
+
+        private final Map<String, Map<String, List<NcdrEntry>>> districts = new LinkedHashMap<>();
+
+        private int entryCount;
+
+        private Builder() {
+        }
+
+        /**
+         * 加入一筆警報。
+         *
+         * @param entry    NCDR 警報 (無法解析發布地點時可為 null)
+         * @param location 已解析的發布地點 (null 表示無法解析，只計入總筆數)
+         * @return 此建構器
+         */
+        public Builder add(NcdrEntry entry, Location location) {
+            entryCount++;
+            if (location == null) {
+                return this;
+            }
+            if (location.districts().isEmpty()) {
+                cityWide.computeIfAbsent(location.city(), key -> new ArrayList<>()).add(entry);
+            } else {
+                Map<String, List<NcdrEntry>> cityDistricts = districts.computeIfAbsent(location.city(),
+                        key -> new LinkedHashMap<>());
+                for (String district : location.districts()) {
+                    cityDistricts.computeIfAbsent(district, key -> new ArrayList<>()).add(entry);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 建立不可變的警報索引。
+         *
+         * @return 警報索引
+         */
+        public NcdrAlertIndex build() {
+            Map<String, CityAlerts> cities = new LinkedHashMap<>();
+            for (String city : union(cityWide.keySet(), districts.keySet())) {
+                List<NcdrEntry> wide = List.copyOf(cityWide.getOrDefault(city, List.of()));
+                Map<String, List<NcdrEntry>> byDistrict = new LinkedHashMap<>();
+                districts.getOrDefault(city, Map.of()).forEach((district, alerts) -> {
+                    // 全區警報同樣適用於各行政區，預先合併以維持查詢為單次 Map 查找
+                    List<NcdrEntry> merged = new ArrayList<>(wide);
+                    merged.addAll(alerts);
+                    byDistrict.put(district, List.copyOf(merged));
+                });
+                cities.put(city, new CityAlerts(wide, Collections.unmodifiableMap(byDistrict)));
+            }
+            return new NcdrAlertIndex(Collections.unmodifiableMap(cities), entryCount);
+        }
+    }
+
+    /**
+     * 警報發布地點。
+     *
+     * @param city      縣市名稱 (已正規化)
+     * @param districts 行政區名稱 (已正規化)，空列表表示全區
+     */
+    public record Location(String city, List<String> districts) {
+    }
+
+    /**
+     * 單一縣市的警報。
+     *
+     * @param cityWide  全區警報
+     * @param districts 各行政區警報 (已包含全區警報)
+     */
+    private record CityAlerts(List<NcdrEntry> cityWide, Map<String, List<NcdrEntry>> districts) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.springbootlab.model.ncdr;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 記憶體中的 NCDR 停班停課 JSON Atom Feed (原始內容)。
+ *
+ * <p>
+ * 由 {@link com.example.springbootlab.service.NcdrFeedService} 抓取並保存，
+ * Feed 中繼 API 直接回傳原始內容，即時查詢則由同一份內容建立 {@link NcdrAlertIndex}。
+ * 此類別建立後不可變，{@link #body()} 不可修改。
+ * </p>
+ *
+ * @param body                 原始內容
+ * @param contentType          上游回應的內容類型
+ * @param etag                 內容雜湊 ETag (含引號，回應用戶端)
+ * @param upstreamEtag         上游回應的 ETag (重新驗證用，可能為 null)
+ * @param upstreamLastModified 上游回應的 Last-Modified (重新驗證用，可能為 null)
+ * @param changedAtMillis      內容最後變更時間 (epoch 毫秒，回應用戶端的 Last-Modified)
+ * @param validatedAtMillis    最後一次向上游確認的時間 (epoch 毫秒)
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+public record NcdrFeed(byte[] body, MediaType contentType, String etag, String upstreamEtag,
+        String upstreamLastModified, long changedAtMillis, long validatedAtMillis) {
+
+    /**
+     * 上游確認內容未變更後，以新的確認時間建立 Feed (內容與變更時間不變)。
+     *
+     * @param now 確認時間 (epoch 毫秒)
+     * @return 新的 Feed
+     */
+    public NcdrFeed revalidated(long now) {
+        return new NcdrFeed(body, contentType, etag, upstreamEtag, upstreamLastModified, changedAtMillis, now);
+    }
+}
@@ -1,33 +1,73 @@
 package com.example.springbootlab.service;
 
+import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.Reader;
-import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.input.BOMInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.config.OpendataProperties.DownloadMode;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+import com.example.springbootlab.model.FetchState;
 import com.example.springbootlab.model.Holiday;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -43,14 +83,19 @@ import lombok.extern.slf4j.Slf4j;
  * <p>
  * 處理流程：
  * <ol>
- * <li>下載 CSV 檔案至暫存區</li>
- * <li>解析 CSV 內容並轉換為 Holiday 物件</li>
- * <li>依年份分組並輸出 JSON 檔案</li>
+ * <li>開啟 CSV 來源 (預設將 HTTP 回應本文直接送入解析器；{@code temp-file} 模式先下載至暫存區)</li>
+ * <li>逐筆解析 CSV 記錄，依年份送入年度緩衝</li>
+ * <li>年度結束時處理關聯節日，並以串流方式直接寫出該年度 JSON 檔案</li>
  * <li>產生年份索引檔 (years.json)</li>
- * <li>清理暫存檔案</li>
+ * <li>清理暫存檔案 (僅 {@code temp-file} 模式)</li>
  * </ol>
  * </p>
  *
+ * <p>
+ * 資料來源依日期排序，記憶體中同時只保留一個年度的資料 (關聯節日只在同年度內比對)，
+ * 不會因來源涵蓋的年份增加而整份載入。
+ * </p>
+ *
  * @author Spring Boot Lab
  * @since 1.0.0
  */
@@ -68,16 +113,109 @@ public class FetchDataService {
     /** 表示「是」的字串常數 */
     private static final String YES_STRING = "是";
 
+    /** 年度記錄雜湊的欄位分隔字元 */
+    private static final byte FIELD_SEPARATOR = 0x1F;
+
+    /** 年度記錄雜湊的記錄分隔字元 */
+    private static final byte RECORD_SEPARATOR = 0x1E;
+
+    /** 固定以 LF 換行的 JSON 縮排格式 (與既有輸出相同，不受作業系統換行符號影響) */
+    private static final DefaultPrettyPrinter LF_PRETTY_PRINTER = new DefaultPrettyPrinter()
+            .withObjectIndenter(new DefaultIndenter("  ", "\n"));
+
+    /** 新發布 JSON 檔的 POSIX 權限 (靜態網站伺服器等其他使用者需可讀取) */
+    private static final Set<PosixFilePermission> PUBLISHED_FILE_PERMISSIONS = PosixFilePermissions
+            .fromString("rw-r--r--");
+
     /** JSON 序列化器（由 Spring 注入） */
     private final ObjectMapper objectMapper;
 
     /** 開放資料設定屬性（由 Spring 注入） */
     private final OpendataProperties opendataProperties;
 
+    /** 事件發布器，年度 JSON 改寫後通知各快取（由 Spring 注入） */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** 是否有更新作業執行中 (single-flight) */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** 串流模式使用的 HTTP 用戶端 */
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(CONNECTION_TIMEOUT_MS))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
     /**
      * 僅處理現有 JSON 檔案，更新關聯資訊 (不重新下載)。
+     *
+     * <p>
+     * 各年度彼此獨立，預設以虛擬執行緒平行處理 ({@code opendata.holiday.parallel-process})，
+     * 單一檔案失敗不影響其他年度；全部完成後才重新產生 {@code years.json}。
+     * 與其他更新作業互斥，已有作業執行中時直接略過。
+     * </p>
+     *
+     * @return 有執行時回傳 true，因其他更新作業執行中而略過時回傳 false
+     */
+    public boolean processExistingFiles() {
+        return runExclusively("處理現有檔案", this::doProcessExistingFiles);
+    }
+
+    /**
+     * 執行資料抓取與處理的主要方法。
+     *
+     * <p>
+     * 此方法會：
+     * <ul>
+     * <li>以上次記錄的 ETag / Last-Modified 送出條件式請求，來源未變更 (304) 時直接結束</li>
+     * <li>逐筆解析 CSV，依年份處理關聯節日，只改寫記錄雜湊與上次不同的年度 JSON 檔案</li>
+     * <li>產生年份索引檔供前端讀取，並保存本次抓取狀態</li>
+     * </ul>
+     * 與其他更新作業互斥 (single-flight)，已有作業執行中時直接略過。
+     * </p>
+     *
+     * @return 有執行時回傳 true，因其他更新作業執行中而略過時回傳 false
+     */
+    public boolean fetchAndProcess() {
+        return runExclusively("資料抓取", this::doFetchAndProcess);
+    }
+
+    /**
+     * 以互斥方式執行更新作業。
+     *
+     * <p>
+     * 同一程序內以 {@link AtomicBoolean} 保證同時只有一個作業；
+     * 有設定 {@code opendata.holiday.lock-file} 時再取得檔案鎖，避免與其他程序 (如 Task Mode 與 Server 排程) 同時改寫。
+     * </p>
+     *
+     * @param jobName 作業名稱 (記錄用)
+     * @param job     更新作業
+     * @return 有執行時回傳 true，已有作業執行中時回傳 false
      */
-    public void processExistingFiles() {
+    private boolean runExclusively(String jobName, Runnable job) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("已有更新作業執行中，略過{}。", jobName);
+            return false;
+        }
+        try (ProcessLock lock = ProcessLock.tryAcquire(opendataProperties.holiday().lockFile())) {
+            if (lock == null) {
+                log.warn("其他程序正在更新假日資料 (檔案鎖: {})，略過{}。",
+                        opendataProperties.holiday().lockFile(), jobName);
+                return false;
+            }
+            job.run();
+            return true;
+        } catch (IOException e) {
+            log.error("無法取得更新作業檔案鎖: {}", opendataProperties.holiday().lockFile(), e);
+            return false;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 處理現有 JSON 檔案 (呼叫端須持有互斥權)。
+     */
+    private void doProcessExistingFiles() {
         try {
             Path outputDir = Paths.get(opendataProperties.holiday().outputDir());
             if (!Files.exists(outputDir)) {
@@ -101,23 +239,41 @@ public class FetchDataService {
                 return;
             }
 
-            for (Path file : jsonFiles) {
-                try {
-                    // 1. 讀取 JSON
-                    List<Holiday> holidays = loadHolidaysFromJson(file);
-                    
-                    // 2. 處理關聯節日
-                    processRelatedHolidays(holidays);
-                    
-                    // 3. 寫回 JSON
-                    saveHolidaysToJson(file, holidays);
-                    
-                    log.info("已更新檔案: {}", file.getFileName());
-                } catch (IOException e) {
-                    log.error("處理檔案失敗: {}", file, e);
+            long startNanos = System.nanoTime();
+            boolean parallel = opendataProperties.holiday().parallelProcess();
+            List<ProcessResult> results;
+            if (parallel) {
+                try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    List<Future<ProcessResult>> futures = jsonFiles.stream()
+                            .map(file -> executor.submit(() -> processExistingFile(file)))
+                            .toList();
+                    results = new ArrayList<>(futures.size());
+                    for (Future<ProcessResult> future : futures) {
+                        results.add(future.get());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("處理現有檔案時被中斷");
+                    return;
+                } catch (ExecutionException e) {
+                    // processExistingFile 已處理所有例外，理論上不會發生
+                    throw new IllegalStateException(e.getCause());
                 }
+            } else {
+                results = jsonFiles.stream().map(this::processExistingFile).toList();
             }
-            log.info("所有現有檔案處理完成。");
+
+            // 全部年度完成後才重新產生年份索引，並於呼叫端執行緒依序發布變更事件
+            // (事件監聽者同步重新載入年度資料，不在平行處理的虛擬執行緒上執行)
+            writeYearsIndex(Set.of());
+            results.stream().filter(ProcessResult::updated)
+                    .forEach(result -> publishDataChanged(result.file().getFileName().toString()));
+
+            long updated = results.stream().filter(ProcessResult::updated).count();
+            long failed = results.stream().filter(ProcessResult::failed).count();
+            log.info("所有現有檔案處理完成 ({}，共 {} 個檔案，更新 {} 個，失敗 {} 個)，共耗時 {} ms",
+                    parallel ? "平行" : "逐一", results.size(), updated, failed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
 
         } catch (IOException e) {
             log.error("掃描目錄失敗", e);
@@ -125,40 +281,88 @@ public class FetchDataService {
     }
 
     /**
-     * 執行資料抓取與處理的主要方法。
+     * 處理單一年度檔案：讀取、處理關聯節日、寫回 (內容未變更時不改動檔案)。
      *
      * <p>
-     * 此方法會：
-     * <ul>
-     * <li>從設定的 URL 下載 CSV 檔案</li>
-     * <li>解析 CSV 並建立 Holiday 物件列表</li>
-     * <li>依年份分組輸出 JSON 檔案</li>
-     * <li>產生年份索引檔供前端讀取</li>
-     * </ul>
+     * 例外只記錄於該檔案的處理結果，不會中斷其他年度。
+     * 變更事件由呼叫端於所有年度完成後發布。
      * </p>
+     *
+     * @param file 年度 JSON 檔案
+     * @return 處理結果
      */
-    public void fetchAndProcess() {
+    private ProcessResult processExistingFile(Path file) {
+        long startNanos = System.nanoTime();
+        try {
+            // 1. 讀取 JSON
+            List<Holiday> holidays = loadHolidaysFromJson(file);
+
+            // 2. 處理關聯節日
+            processRelatedHolidays(holidays);
+
+            // 3. 寫回 JSON (內容未變更時不改動檔案)
+            boolean updated = saveHolidaysToJson(file, holidays);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (updated) {
+                log.info("已更新檔案: {} ({} ms)", file.getFileName(), elapsedMs);
+            } else {
+                log.info("檔案內容未變更: {} ({} ms)", file.getFileName(), elapsedMs);
+            }
+            return new ProcessResult(file, updated, false);
+        } catch (IOException | RuntimeException e) {
+            log.error("處理檔案失敗: {}", file, e);
+            return new ProcessResult(file, false, true);
+        }
+    }
+
+    /**
+     * 執行資料抓取與處理 (呼叫端須持有互斥權)。
+     */
+    private void doFetchAndProcess() {
         Path tempFile = null;
         String dataUrl = opendataProperties.holiday().url();
+        DownloadMode mode = Objects.requireNonNullElse(opendataProperties.holiday().downloadMode(),
+                DownloadMode.STREAM);
+        long startNanos = System.nanoTime();
         try {
-            log.info("開始從 OpenData 抓取資料: {}", dataUrl);
-
-            // 步驟 1: 下載至暫存檔
-            tempFile = downloadToTempFile(dataUrl);
-
-            // 步驟 2: 解析 CSV
-            List<Holiday> allHolidays = parseCsvFile(tempFile);
-            log.info("成功解析 {} 筆記錄。", allHolidays.size());
-
-            // 步驟 2.5: 處理關聯節日 (補假追蹤)
-            processRelatedHolidays(allHolidays);
-
-            // 步驟 3: 依年份分組並輸出 JSON
-            Map<String, List<Holiday>> groupedByYear = groupByYear(allHolidays);
-            writeYearlyJsonFiles(groupedByYear);
+            log.info("開始從 OpenData 抓取資料 (模式 {}): {}", mode, dataUrl);
+            FetchState previous = loadFetchState();
+            Path outputDir = Paths.get(opendataProperties.holiday().outputDir()).toAbsolutePath().normalize();
+
+            // 步驟 1: 開啟 CSV 來源 (上次的輸出仍完整時送出條件式請求)
+            SourceResponse response = openSource(dataUrl,
+                    isPreviousOutputIntact(dataUrl, previous, outputDir) ? previous : null);
+            if (response == null) {
+                log.info("資料來源未變更 (HTTP 304)，略過處理，共耗時 {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                return;
+            }
+            InputStream source = response.body();
+            if (mode == DownloadMode.TEMP_FILE) {
+                tempFile = downloadToTempFile(source);
+                source = Files.newInputStream(tempFile);
+            }
+            MessageDigest contentDigest = newSha256();
+            source = new DigestInputStream(source, contentDigest);
+
+            // 步驟 2 ~ 3: 逐筆解析 CSV，處理關聯節日 (補假追蹤) 並依年份輸出有變動的 JSON
+            FetchState current = FetchState.builder()
+                    .url(dataUrl)
+                    .outputDir(outputDir.toString())
+                    .etag(response.etag())
+                    .lastModified(response.lastModified())
+                    .build();
+            Set<String> years = streamCsvToYearlyJson(source, previous, current);
+            current.setContentHash(HexFormat.of().formatHex(contentDigest.digest()));
+            if (current.getContentHash().equals(previous.getContentHash())) {
+                log.info("來源內容雜湊與上次相同。");
+            }
 
-            // 步驟 4: 產生年份索引檔
-            writeYearsIndex(groupedByYear);
+            // 步驟 4: 產生年份索引檔並保存抓取狀態
+            writeYearsIndex(years);
+            saveFetchState(current);
+            log.info("資料抓取完成 (模式 {})，共耗時 {} ms", mode,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
 
         } catch (IOException e) {
             log.error("檔案處理過程發生 I/O 錯誤", e);
@@ -181,43 +385,191 @@ public class FetchDataService {
 
     /**
      * 將 Holiday 列表寫入 JSON 檔案。
+     *
+     * @return 檔案內容有變更時回傳 true
+     */
+    private boolean saveHolidaysToJson(Path file, List<Holiday> holidays) throws IOException {
+        return writeYearJson(file, holidays);
+    }
+
+    /**
+     * 讀取上次的抓取狀態。
+     *
+     * @return 抓取狀態，未設定狀態檔、檔案不存在或無法解析時回傳空狀態
+     */
+    private FetchState loadFetchState() {
+        String stateFile = opendataProperties.holiday().stateFile();
+        if (stateFile == null || stateFile.isBlank() || !Files.isRegularFile(Paths.get(stateFile))) {
+            return new FetchState();
+        }
+        try {
+            FetchState state = objectMapper.readValue(Paths.get(stateFile).toFile(), FetchState.class);
+            if (state.getYearHashes() == null) {
+                state.setYearHashes(new TreeMap<>());
+            }
+            return state;
+        } catch (IOException e) {
+            log.warn("無法讀取抓取狀態檔，將完整抓取: {}", stateFile, e);
+            return new FetchState();
+        }
+    }
+
+    /**
+     * 判斷上次抓取的輸出是否仍完整，可送出條件式請求。
+     *
+     * <p>
+     * 來源 URL 與輸出目錄皆與上次相同，且上次記錄的每個年度檔案仍存在時才成立。
+     * 否則來源回應 304 時不會重新產生任何檔案，被刪除的年度檔案 (或新的輸出目錄) 將一直無法補回。
+     * </p>
+     *
+     * @param dataUrl   資料來源 URL
+     * @param previous  上次的抓取狀態
+     * @param outputDir 目前的輸出目錄 (絕對路徑)
+     * @return 可送出條件式請求時回傳 true
      */
-    private void saveHolidaysToJson(Path file, List<Holiday> holidays) throws IOException {
-        writeJsonWithLf(file, holidays);
+    private boolean isPreviousOutputIntact(String dataUrl, FetchState previous, Path outputDir) {
+        if (!dataUrl.equals(previous.getUrl()) || !outputDir.toString().equals(previous.getOutputDir())) {
+            return false;
+        }
+        for (String year : previous.getYearHashes().keySet()) {
+            if (!Files.isRegularFile(outputDir.resolve(year + ".json"))) {
+                log.info("{} 年度 JSON 已不存在，不送出條件式請求。", year);
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
-     * 下載資料至暫存檔。
+     * 保存本次的抓取狀態 (未設定狀態檔時略過)。
      *
-     * @param dataUrl 資料來源 URL
+     * @param state 抓取狀態
+     * @throws IOException 當檔案寫入失敗時
+     */
+    private void saveFetchState(FetchState state) throws IOException {
+        String stateFile = opendataProperties.holiday().stateFile();
+        if (stateFile == null || stateFile.isBlank()) {
+            return;
+        }
+        Path statePath = Paths.get(stateFile).toAbsolutePath();
+        Files.createDirectories(statePath.getParent());
+        writeJsonWithLf(statePath, state);
+    }
+
+    /**
+     * 將來源串流完整下載至暫存檔。
+     *
+     * @param source 來源串流 (下載完畢後關閉)
      * @return 暫存檔路徑
-     * @throws IOException        當下載失敗時
-     * @throws URISyntaxException 當 URL 格式錯誤時
+     * @throws IOException 當下載失敗時
      */
-    private Path downloadToTempFile(String dataUrl) throws IOException, URISyntaxException {
+    private Path downloadToTempFile(InputStream source) throws IOException {
         Path tempFile = Files.createTempFile("holiday_data_", ".csv");
         log.info("下載檔案中...");
-        FileUtils.copyURLToFile(
-                new URI(dataUrl).toURL(),
-                tempFile.toFile(),
-                CONNECTION_TIMEOUT_MS,
-                READ_TIMEOUT_MS);
+        try (source) {
+            Files.copy(source, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        }
         log.info("檔案下載成功: {}", tempFile);
         return tempFile;
     }
 
     /**
-     * 解析 CSV 檔案並轉換為 Holiday 物件列表。
+     * 開啟資料來源的串流，回應本文直接交給 CSV 解析器，不落地暫存檔。
      *
-     * @param csvFile CSV 檔案路徑
-     * @return Holiday 物件列表
-     * @throws IOException 當檔案讀取失敗時
+     * <p>
+     * 有指定上次的抓取狀態時帶上 {@code If-None-Match} / {@code If-Modified-Since}，
+     * 回應 304 時回傳 null。
+     * 有設定 {@code opendata.holiday.audit-file} 時，讀取的同時將原始位元組寫入稽核檔。
+     * 非 HTTP(S) 的 URL (如 {@code file:}) 以 {@link URLConnection} 開啟，不送出條件式請求。
+     * </p>
+     *
+     * @param dataUrl    資料來源 URL
+     * @param validators 提供驗證標頭的上次抓取狀態 (null 時送出一般請求)
+     * @return 來源回應，未變更時回傳 null
+     * @throws IOException        當連線失敗或回應狀態非 200 / 304 時
+     * @throws URISyntaxException 當 URL 格式錯誤時
      */
-    private List<Holiday> parseCsvFile(Path csvFile) throws IOException {
-        List<Holiday> holidays = new ArrayList<>();
+    private SourceResponse openSource(String dataUrl, FetchState validators)
+            throws IOException, URISyntaxException {
+        URI uri = new URI(dataUrl);
+        InputStream body;
+        String etag = null;
+        String lastModified = null;
+        if ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofMillis(READ_TIMEOUT_MS))
+                    .GET();
+            if (validators != null) {
+                if (validators.getEtag() != null) {
+                    request.header("If-None-Match", validators.getEtag());
+                }
+                if (validators.getLastModified() != null) {
+                    request.header("If-Modified-Since", validators.getLastModified());
+                }
+            }
+            HttpResponse<InputStream> response;
+            try {
+                response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("下載資料時被中斷");
+            }
+            if (response.statusCode() == 304) {
+                response.body().close();
+                return null;
+            }
+            if (response.statusCode() != 200) {
+                response.body().close();
+                throw new IOException("下載資料失敗，HTTP 狀態碼: " + response.statusCode());
+            }
+            body = response.body();
+            etag = response.headers().firstValue("ETag").orElse(null);
+            lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        } else {
+            URLConnection connection = uri.toURL().openConnection();
+            connection.setConnectTimeout(CONNECTION_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            body = connection.getInputStream();
+        }
+
+        String auditFile = opendataProperties.holiday().auditFile();
+        if (auditFile != null && !auditFile.isBlank()) {
+            Path auditPath = Paths.get(auditFile).toAbsolutePath();
+            Files.createDirectories(auditPath.getParent());
+            body = new TeeInputStream(body, Files.newOutputStream(auditPath), true);
+            log.info("原始 CSV 同步保存至: {}", auditPath);
+        }
+        return new SourceResponse(body, etag, lastModified);
+    }
+
+    /**
+     * 逐筆解析 CSV 串流並輸出各年度 JSON 檔案。
+     *
+     * <p>
+     * 記錄依序送入目前年度的緩衝，遇到不同年份時先完成前一個年度 (處理關聯節日並寫出檔案)。
+     * 每個年度同時計算記錄雜湊，與上次狀態相同且檔案仍存在時保留現有檔案，不改寫也不發布變更事件。
+     * 來源未依年份排序、已完成的年度再次出現時，會讀回該年度檔案後合併重寫。
+     * </p>
+     *
+     * @param source   CSV 原始串流 (處理完畢後關閉)
+     * @param previous 上次的抓取狀態
+     * @param current  本次的抓取狀態 (記錄各年度雜湊)
+     * @return 本次來源包含的年份
+     * @throws IOException 當讀取或檔案寫入失敗時
+     */
+    private Set<String> streamCsvToYearlyJson(InputStream source, FetchState previous, FetchState current)
+            throws IOException {
+        Path outputPath = Paths.get(opendataProperties.holiday().outputDir());
+        Files.createDirectories(outputPath);
+
+        YearlyOutput output = new YearlyOutput(outputPath, previous, current);
+        String currentYear = null;
+        List<Holiday> yearBuffer = new ArrayList<>();
+        MessageDigest yearDigest = newSha256();
+        long records = 0;
 
         try (BOMInputStream bomIn = BOMInputStream.builder()
-                .setInputStream(new FileInputStream(csvFile.toFile()))
+                .setInputStream(source)
                 .get();
                 Reader reader = new InputStreamReader(bomIn, StandardCharsets.UTF_8);
                 CSVParser parser = CSVParser.builder()
@@ -226,10 +578,92 @@ public class FetchDataService {
                         .get()) {
 
             for (CSVRecord record : parser) {
-                holidays.add(mapToHoliday(record));
+                Holiday holiday = mapToHoliday(record);
+                if (!holiday.getYear().equals(currentYear)) {
+                    flushYear(output, currentYear, yearBuffer, yearDigest);
+                    currentYear = holiday.getYear();
+                    if (output.years.contains(currentYear)) {
+                        log.warn("CSV 未依年份排序，{} 年度重新讀回合併", currentYear);
+                        yearBuffer.addAll(loadHolidaysFromJson(outputPath.resolve(currentYear + ".json")));
+                        output.merged.add(currentYear);
+                    }
+                }
+                updateRecordHash(yearDigest, holiday);
+                yearBuffer.add(holiday);
+                records++;
+            }
+        }
+        flushYear(output, currentYear, yearBuffer, yearDigest);
+
+        log.info("成功解析 {} 筆記錄，共 {} 個年度，改寫 {} 個年度。",
+                records, output.years.size(), output.written);
+        return output.years;
+    }
+
+    /**
+     * 完成單一年度：處理關聯節日，記錄雜湊有變動時寫出 JSON 並發布資料變更事件，完成後清空緩衝。
+     *
+     * @param output     輸出狀態
+     * @param year       年份 (尚無資料時為 null)
+     * @param yearBuffer 該年度的記錄
+     * @param yearDigest 該年度的記錄雜湊 (完成後重設)
+     * @throws IOException 當檔案寫入失敗時
+     */
+    private void flushYear(YearlyOutput output, String year, List<Holiday> yearBuffer, MessageDigest yearDigest)
+            throws IOException {
+        if (year == null || yearBuffer.isEmpty()) {
+            return;
+        }
+        String hash = HexFormat.of().formatHex(yearDigest.digest());
+        Path jsonFile = output.outputPath.resolve(year + ".json");
+        output.years.add(year);
+
+        if (output.merged.contains(year)) {
+            // 合併後的雜湊只涵蓋後半段記錄，不保存，下次抓取時重新改寫
+            output.current.getYearHashes().remove(year);
+        } else {
+            output.current.getYearHashes().put(year, hash);
+            if (hash.equals(output.previous.getYearHashes().get(year)) && Files.isRegularFile(jsonFile)) {
+                log.info("{} 年度資料未變更，保留現有檔案。", year);
+                yearBuffer.clear();
+                return;
             }
         }
-        return holidays;
+
+        RelatedHolidayResolver.resolveYear(yearBuffer);
+        if (writeYearJson(jsonFile, yearBuffer)) {
+            output.written++;
+            publishDataChanged(jsonFile.getFileName().toString());
+            log.info("已產生 {} 年度 JSON: {}", year, jsonFile.toAbsolutePath());
+        } else {
+            log.info("{} 年度 JSON 內容未變更，保留現有檔案。", year);
+        }
+        yearBuffer.clear();
+    }
+
+    /**
+     * 將單筆記錄的來源欄位加入年度雜湊。
+     */
+    private void updateRecordHash(MessageDigest digest, Holiday holiday) {
+        for (String field : new String[] { holiday.getDate(), holiday.getName(),
+                String.valueOf(holiday.isHoliday()), holiday.getHolidayCategory(), holiday.getDescription() }) {
+            if (field != null) {
+                digest.update(field.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(FIELD_SEPARATOR);
+        }
+        digest.update(RECORD_SEPARATOR);
+    }
+
+    /**
+     * 建立 SHA-256 雜湊器。
+     */
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
@@ -268,33 +702,18 @@ public class FetchDataService {
     }
 
     /**
-     * 依年份分組 Holiday 資料。
+     * 依年度 JSON 檔名發布資料變更事件 (非 {@code {year}.json} 檔名則略過)。
      *
-     * @param holidays Holiday 列表
-     * @return 依年份分組的 Map
-     */
-    private Map<String, List<Holiday>> groupByYear(List<Holiday> holidays) {
-        return holidays.stream()
-                .collect(Collectors.groupingBy(Holiday::getYear));
-    }
-
-    /**
-     * 輸出各年份的 JSON 檔案。
+     * <p>
+     * {@code opendata.holiday.publish-changes} 為 false 時 (Task Mode) 不發布：
+     * 同步事件會建立所有延遲初始化的監聽元件 (年度索引、PDF 快取等)，一次性任務用不到。
+     * </p>
      *
-     * @param groupedByYear 依年份分組的資料
-     * @throws IOException 當檔案寫入失敗時
+     * @param fileName 檔案名稱
      */
-    private void writeYearlyJsonFiles(Map<String, List<Holiday>> groupedByYear) throws IOException {
-        Path outputPath = Paths.get(opendataProperties.holiday().outputDir());
-        Files.createDirectories(outputPath);
-
-        for (Map.Entry<String, List<Holiday>> entry : groupedByYear.entrySet()) {
-            String year = entry.getKey();
-            List<Holiday> holidaysOfYear = entry.getValue();
-
-            Path jsonFile = outputPath.resolve(year + ".json");
-            writeJsonWithLf(jsonFile, holidaysOfYear);
-            log.info("已產生 {} 年度 JSON: {}", year, jsonFile.toAbsolutePath());
+    private void publishDataChanged(String fileName) {
+        if (opendataProperties.holiday().publishChanges() && fileName.matches("\\d{4}\\.json")) {
+            eventPublisher.publishEvent(new HolidayDataChangedEvent(Integer.parseInt(fileName.substring(0, 4))));
         }
     }
 
@@ -306,14 +725,14 @@ public class FetchDataService {
      * 確保索引包含所有年份，而非僅限於當次下載的資料。
      * </p>
      *
-     * @param groupedByYear 依年份分組的資料（用於確保新年份也被包含）
+     * @param writtenYears 本次輸出的年份（用於確保新年份也被包含）
      * @throws IOException 當檔案寫入失敗時
      */
-    private void writeYearsIndex(Map<String, List<Holiday>> groupedByYear) throws IOException {
+    private void writeYearsIndex(Set<String> writtenYears) throws IOException {
         Path outputPath = Paths.get(opendataProperties.holiday().outputDir());
 
         // 掃描目錄中所有 {year}.json 檔案，取得完整的年份列表
-        List<String> allYears = new ArrayList<>(groupedByYear.keySet());
+        List<String> allYears = new ArrayList<>(writtenYears);
 
         try (var files = Files.list(outputPath)) {
             files.filter(Files::isRegularFile)
@@ -334,24 +753,114 @@ public class FetchDataService {
         log.info("已產生年份索引檔 (共 {} 個年份): {}", sortedYears.size(), yearsFile.toAbsolutePath());
     }
 
+    /**
+     * 以串流方式將年度資料寫入 JSON 檔案 (不先組成完整字串)。
+     *
+     * @param filePath 檔案路徑
+     * @param holidays 年度資料
+     * @return 檔案內容有變更時回傳 true
+     * @throws IOException 當檔案寫入失敗時
+     */
+    private boolean writeYearJson(Path filePath, List<Holiday> holidays) throws IOException {
+        return writeJsonAtomically(filePath, (writer, generator) -> {
+            generator.writeStartArray();
+            for (Holiday holiday : holidays) {
+                writer.writeValue(generator, holiday);
+            }
+            generator.writeEndArray();
+        });
+    }
+
     /**
      * 將物件寫入 JSON 檔案，使用 LF 換行符號。
      *
      * @param filePath 檔案路徑
      * @param data     要序列化的資料物件
+     * @return 檔案內容有變更時回傳 true
+     * @throws IOException 當檔案寫入失敗時
+     */
+    private boolean writeJsonWithLf(Path filePath, Object data) throws IOException {
+        return writeJsonAtomically(filePath, (writer, generator) -> writer.writeValue(generator, data));
+    }
+
+    /**
+     * 以原子方式寫入 JSON 檔案。
+     *
+     * <p>
+     * 內容先寫入同目錄下的暫存檔 (產生器設定固定 LF 換行的縮排格式，並以 LF 結尾)，
+     * 寫入時同步計算 SHA-256；與既有檔案雜湊相同時捨棄暫存檔、不改動既有檔案 (修改時間不變)，
+     * 否則以原子搬移取代既有檔案，讀取端不會看到寫到一半的內容。
+     * </p>
+     *
+     * @param filePath 檔案路徑
+     * @param content  JSON 內容
+     * @return 檔案內容有變更時回傳 true
      * @throws IOException 當檔案寫入失敗時
      */
-    private void writeJsonWithLf(Path filePath, Object data) throws IOException {
-        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(filePath), StandardCharsets.UTF_8)) {
-            String json = objectMapper.writeValueAsString(data);
-            // 確保換行符號為 LF（移除可能的 CR）
-            json = json.replace("\r\n", "\n").replace("\r", "\n");
-            writer.write(json);
-            // 確保檔案以 LF 結尾
-            if (!json.endsWith("\n")) {
-                writer.write("\n");
+    private boolean writeJsonAtomically(Path filePath, JsonContent content) throws IOException {
+        Path target = filePath.toAbsolutePath();
+        Path tempFile = createTempFileFor(target);
+        try {
+            ObjectWriter writer = objectMapper.writer(LF_PRETTY_PRINTER)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            MessageDigest digest = newSha256();
+            try (OutputStream out = new DigestOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)), digest);
+                    JsonGenerator generator = writer.createGenerator(out, JsonEncoding.UTF8)) {
+                content.write(writer, generator);
+                generator.writeRaw('\n');
+            }
+            if (Files.isRegularFile(target) && MessageDigest.isEqual(digest.digest(), sha256Of(target))) {
+                log.debug("內容未變更，略過寫入: {}", target);
+                return false;
+            }
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 於目標檔案的目錄建立暫存檔。
+     *
+     * <p>
+     * {@link Files#createTempFile} 預設權限為 {@code rw-------}，原子搬移後會使發布的 JSON 變成只有擁有者可讀。
+     * POSIX 檔案系統上改為沿用既有目標檔的權限，新檔案則為 {@code rw-r--r--} (仍受 umask 限制，與一般寫檔相同)。
+     * </p>
+     */
+    private static Path createTempFileFor(Path target) throws IOException {
+        Path dir = target.getParent();
+        String prefix = "." + target.getFileName();
+        if (!Files.getFileStore(dir).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            return Files.createTempFile(dir, prefix, ".tmp");
+        }
+        Path tempFile = Files.createTempFile(dir, prefix, ".tmp",
+                PosixFilePermissions.asFileAttribute(PUBLISHED_FILE_PERMISSIONS));
+        if (Files.isRegularFile(target)) {
+            try {
+                Files.setPosixFilePermissions(tempFile, Files.getPosixFilePermissions(target));
+            } catch (IOException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
             }
         }
+        return tempFile;
+    }
+
+    /**
+     * 計算檔案的 SHA-256。
+     */
+    private static byte[] sha256Of(Path file) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
     }
 
     /**
@@ -371,102 +880,129 @@ public class FetchDataService {
         } catch (IOException e) {
             log.warn("無法刪除暫存檔: {}", tempFile, e);
         }
-    }    /**
+    }
+
+    /**
      * 處理關聯節日資訊。
      * <p>
      * 針對補假、補上班等項目，嘗試從其他節日的說明中找出關聯。
      * 例如：10/24 補假，會在 10/25 的說明中找到「於10月24日補假」，
      * 此時將 10/25 的節日名稱填入 10/24 的 note 欄位。
+     * 每則說明只解析一次，詳見 {@link RelatedHolidayResolver}。
      * </p>
      *
      * @param holidays 所有節日列表
      */
     private void processRelatedHolidays(List<Holiday> holidays) {
-        // 為避免重複解析，先建立年份分組的 Map，縮小搜尋範圍 (雖然題目需求是同一年，但全 list 跑也無妨，這邊優化一下)
-        Map<String, List<Holiday>> byYear = groupByYear(holidays);
-
-        for (List<Holiday> yearList : byYear.values()) {
-            for (Holiday target : yearList) {
-                // 判斷是否需要追蹤：補假、補上班、調整放假 或 名稱空白
-                boolean isMakeup = false;
-                if (target.getHolidayCategory() != null) {
-                    String cat = target.getHolidayCategory();
-                    if (cat.contains("補假") || cat.contains("補行上班") || cat.contains("調整放假")) {
-                        isMakeup = true;
-                    }
-                }
-                if (!isMakeup && (target.getName() == null || target.getName().trim().isEmpty())) {
-                    isMakeup = true;
-                }
+        RelatedHolidayResolver.resolve(holidays);
+    }
 
-                // 如果不是目標類型，跳過
-                if (!isMakeup) {
-                    continue;
-                }
+    /**
+     * JSON 內容寫出邏輯。
+     */
+    @FunctionalInterface
+    private interface JsonContent {
+
+        /**
+         * 以指定的序列化器寫出內容。
+         *
+         * @param writer    設定 LF 縮排格式的序列化器
+         * @param generator 寫入暫存檔的產生器
+         * @throws IOException 當寫入失敗時
+         */
+        void write(ObjectWriter writer, JsonGenerator generator) throws IOException;
+    }
 
-                // 解析日期
-                String dStr = target.getDate();
-                if (dStr == null || dStr.length() != 8) {
-                    continue;
-                }
-                int month = Integer.parseInt(dStr.substring(4, 6));
-                int day = Integer.parseInt(dStr.substring(6, 8));
-
-                // 建立搜尋模式 (使用 Regex 以支援更多格式，如空白、補零等)
-                String mStr = String.valueOf(month);
-                String mPad = String.format("%02d", month);
-                String mChi = toChineseNum(month);
-
-                String dayStr = String.valueOf(day);
-                String dPad = String.format("%02d", day);
-                String dChi = toChineseNum(day);
-
-                // 建構 Regex: (M|MM|中文) + 可能空白 + "月" + 可能空白 + (D|DD|中文) + 可能空白 + "日"
-                // 注意：toChineseNum 回傳的若是單一數字可能與 String.valueOf 相同 (雖然目前實作 10 以下是中文)，但重複在 OR 條件中無妨
-                String regex = String.format("(%s|%s|%s)\\s*月\\s*(%s|%s|%s)\\s*日", 
-                        mStr, mPad, mChi, dayStr, dPad, dChi);
-                
-                java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(regex);
-
-                // 在同一年份的其他項目中搜尋
-                for (Holiday source : yearList) {
-                    if (source == target) continue;
-
-                    String desc = source.getDescription();
-                    if (desc != null) {
-                        java.util.regex.Matcher matcher = pattern.matcher(desc);
-                        if (matcher.find()) {
-                            // 找到關聯，設定 note
-                            String sourceName = source.getName();
-                            if (sourceName != null && !sourceName.isEmpty()) {
-                                target.setNote(sourceName);
-                                // 找到一個就停止搜尋該項目的來源
-                                break;
-                            }
-                        }
-                    }
+    /**
+     * 跨程序的更新作業檔案鎖。
+     *
+     * @param channel 鎖定檔案的通道 (未設定鎖檔時為 null)
+     * @param lock    檔案鎖 (未設定鎖檔時為 null)
+     */
+    private record ProcessLock(FileChannel channel, FileLock lock) implements AutoCloseable {
+
+        /**
+         * 嘗試取得檔案鎖 (不等待)。
+         *
+         * @param lockFile 鎖檔路徑 (未設定時不鎖定檔案)
+         * @return 取得的鎖；已被其他程序持有時回傳 null
+         * @throws IOException 當鎖檔無法建立時
+         */
+        static ProcessLock tryAcquire(String lockFile) throws IOException {
+            if (lockFile == null || lockFile.isBlank()) {
+                return new ProcessLock(null, null);
+            }
+            Path lockPath = Paths.get(lockFile).toAbsolutePath();
+            Files.createDirectories(lockPath.getParent());
+            FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    return new ProcessLock(channel, lock);
                 }
+            } catch (OverlappingFileLockException e) {
+                // 同一程序內的其他實例已持有
+            }
+            channel.close();
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                // 關閉通道時一併釋放檔案鎖
+                channel.close();
             }
         }
     }
 
     /**
-     * 將數字轉換為中文數字 (僅支援日期用途，1-31)。
+     * 單一年度檔案的處理結果。
      *
-     * @param num 數字
-     * @return 中文數字字串
+     * @param file    年度 JSON 檔案
+     * @param updated 檔案內容是否有變更
+     * @param failed  是否處理失敗
      */
-    private String toChineseNum(int num) {
-        final String[] chinese = {"", "一", "二", "三", "四", "五", "六", "七", "八", "九", "十"};
-        if (num <= 10) {
-            return chinese[num];
-        } else if (num < 20) {
-            return "十" + (num % 10 == 0 ? "" : chinese[num % 10]);
-        } else if (num < 30) {
-            return "二十" + (num % 10 == 0 ? "" : chinese[num % 10]);
-        } else if (num < 40) {
-            return "三十" + (num % 10 == 0 ? "" : chinese[num % 10]);
+    private record ProcessResult(Path file, boolean updated, boolean failed) {
+    }
+
+    /**
+     * 資料來源回應。
+     *
+     * @param body         回應本文
+     * @param etag         回應的 ETag (可為 null)
+     * @param lastModified 回應的 Last-Modified (可為 null)
+     */
+    private record SourceResponse(InputStream body, String etag, String lastModified) {
+    }
+
+    /**
+     * 單次抓取的年度輸出狀態。
+     */
+    private static final class YearlyOutput {
+
+        /** 輸出目錄 */
+        private final Path outputPath;
+
+        /** 上次的抓取狀態 */
+        private final FetchState previous;
+
+        /** 本次的抓取狀態 */
+        private final FetchState current;
+
+        /** 本次來源包含的年份 */
+        private final Set<String> years = new LinkedHashSet<>();
+
+        /** 因來源未排序而合併重寫的年份 */
+        private final Set<String> merged = new HashSet<>();
+
+        /** 改寫的年度數 */
+        private int written;
+
+        private YearlyOutput(Path outputPath, FetchState previous, FetchState current) {
+            this.outputPath = outputPath;
+            this.previous = previous;
+            this.current = current;
         }
-        return String.valueOf(num);
     }
 }
@@ -0,0 +1,347 @@
+package com.example.springbootlab.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+import com.example.springbootlab.exception.ResourceNotFoundException;
+import com.example.springbootlab.model.BusinessDayCount;
+import com.example.springbootlab.model.CalendarDay;
+import com.example.springbootlab.model.Holiday;
+import com.example.springbootlab.model.calendar.HolidayCalendarIndex;
+import com.example.springbootlab.model.calendar.StringTable;
+import com.example.springbootlab.model.calendar.YearCalendar;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 假日日曆索引服務。
+ *
+ * <p>
+ * 於第一次查詢時一次性讀取輸出目錄下所有 {@code {year}.json}，
+ * 建立以 epoch day 與位元集合編碼的 {@link HolidayCalendarIndex}，
+ * 之後所有日期查詢皆直接存取記憶體中的索引，不再讀檔或保留大量 {@link Holiday} 物件。
+ * </p>
+ *
+ * <p>
+ * 索引快照為不可變物件，更新時以新快照整體替換，讀取端永遠不需加鎖。
+ * 收到 {@link HolidayDataChangedEvent} (如 {@link HolidayDataWatcher} 偵測到檔案改寫) 時只重新載入該年度。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class HolidayCalendarService {
+
+    /** 年度 JSON 檔名格式 */
+    private static final String YEAR_FILE_PATTERN = "\\d{4}\\.json";
+
+    /** JSON 反序列化器（由 Spring 注入） */
+    private final ObjectMapper objectMapper;
+
+    /** 開放資料設定屬性（由 Spring 注入） */
+    private final OpendataProperties opendataProperties;
+
+    /** 各年度共用的字串表 */
+    private final StringTable stringTable = new StringTable();
+
+    /** 各年度載入時的來源檔案修改時間 (epoch 毫秒) */
+    private final Map<Integer, Long> loadedLastModified = new ConcurrentHashMap<>();
+
+    /** 目前的索引快照 (尚未載入時為 null) */
+    private volatile HolidayCalendarIndex index;
+
+    /**
+     * 取得目前的索引快照，首次呼叫時載入所有年度資料。
+     *
+     * @return 索引快照
+     */
+    public HolidayCalendarIndex getIndex() {
+        HolidayCalendarIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = loadAll();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 取得指定年度的日曆索引。
+     *
+     * @param year 西元年份
+     * @return 年度索引
+     * @throws ResourceNotFoundException 當指定年份的資料不存在時
+     */
+    public YearCalendar getYearCalendar(int year) {
+        YearCalendar calendar = getIndex().getYear(year);
+        if (calendar == null) {
+            log.warn("找不到 {} 年度的假日資料。", year);
+            throw new ResourceNotFoundException("找不到 " + year + " 年度的假日資料");
+        }
+        return calendar;
+    }
+
+    /**
+     * 取得指定年度來源檔案於載入時的修改時間。
+     *
+     * @param year 西元年份
+     * @return 修改時間 (epoch 毫秒)，未載入時回傳 -1
+     */
+    public long getSourceLastModified(int year) {
+        return loadedLastModified.getOrDefault(year, -1L);
+    }
+
+    /**
+     * 依年份取得假日資料列表 (依日期排序)。
+     *
+     * @param year 西元年份 (4 位數字)
+     * @return 該年份的假日資料列表
+     * @throws ResourceNotFoundException 當指定年份的資料不存在時
+     */
+    public List<Holiday> getHolidays(String year) {
+        return getYearCalendar(Integer.parseInt(year)).toHolidays();
+    }
+
+    /**
+     * 查詢單一日期的日曆狀態。
+     *
+     * @param date 日期
+     * @return 日曆狀態
+     * @throws ResourceNotFoundException 當該日期所屬年份的資料不存在時
+     */
+    public CalendarDay getCalendarDay(LocalDate date) {
+        int epochDay = (int) date.toEpochDay();
+        return toCalendarDay(getYearCalendar(date.getYear()), epochDay);
+    }
+
+    /**
+     * 查詢日期區間 (皆含) 內每一天的日曆狀態。
+     *
+     * @param from 起始日期
+     * @param to   結束日期
+     * @return 依日期排序的日曆狀態列表
+     * @throws ResourceNotFoundException 當區間內有年份資料不存在時
+     */
+    public List<CalendarDay> getCalendarDays(LocalDate from, LocalDate to) {
+        HolidayCalendarIndex current = requireCoverage(from, to);
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+
+        List<CalendarDay> days = new ArrayList<>(last - first + 1);
+        YearCalendar calendar = current.getYear(from.getYear());
+        for (int epochDay = first; epochDay <= last; epochDay++) {
+            if (!calendar.contains(epochDay)) {
+                calendar = current.getYear(calendar.getYear() + 1);
+            }
+            days.add(toCalendarDay(calendar, epochDay));
+        }
+        return days;
+    }
+
+    /**
+     * 計算日期區間 (皆含) 內的上班日數。
+     *
+     * <p>
+     * 以預先計算的上班日前綴和相減求得，計算成本與區間長度無關。
+     * </p>
+     *
+     * @param from 起始日期
+     * @param to   結束日期
+     * @return 上班日統計
+     * @throws ResourceNotFoundException 當區間內有年份資料不存在時
+     */
+    public BusinessDayCount countBusinessDays(LocalDate from, LocalDate to) {
+        HolidayCalendarIndex current = requireCoverage(from, to);
+        long calendarDays = to.toEpochDay() - from.toEpochDay() + 1;
+        long businessDays = current.countWorkingDays((int) from.toEpochDay(), (int) to.toEpochDay());
+
+        return BusinessDayCount.builder()
+                .from(YearCalendar.formatEpochDay((int) from.toEpochDay()))
+                .to(YearCalendar.formatEpochDay((int) to.toEpochDay()))
+                .calendarDays(calendarDays)
+                .businessDays(businessDays)
+                .holidays(calendarDays - businessDays)
+                .build();
+    }
+
+    /**
+     * 重新載入所有年度資料並替換索引快照。
+     */
+    public synchronized void reload() {
+        index = loadAll();
+    }
+
+    /**
+     * 重新載入單一年度並以新快照替換 (copy-on-write)，其他年度維持原狀。
+     *
+     * <p>
+     * 來源檔案已刪除時自索引移除該年度；檔案解析失敗時保留原有資料。
+     * </p>
+     *
+     * @param year 西元年份
+     */
+    public synchronized void reloadYear(int year) {
+        HolidayCalendarIndex current = getIndex();
+        Path file = yearFile(year);
+        if (!Files.isRegularFile(file)) {
+            loadedLastModified.remove(year);
+            index = current.withoutYear(year);
+            log.info("{} 年度假日資料已移除。", year);
+            return;
+        }
+        YearCalendar calendar = loadYear(file);
+        if (calendar != null) {
+            index = current.withYear(calendar);
+            log.info("已重新載入 {} 年度假日資料。", year);
+        }
+    }
+
+    /**
+     * 年度資料變更時重新載入該年度 (索引尚未載入時略過，首次查詢時會讀取最新檔案)。
+     *
+     * @param event 年度假日資料變更事件
+     */
+    @EventListener
+    public void onHolidayDataChanged(HolidayDataChangedEvent event) {
+        if (index != null) {
+            reloadYear(event.year());
+        }
+    }
+
+    /**
+     * 確認日期區間內的年份皆已載入。
+     *
+     * @return 目前的索引快照
+     * @throws ResourceNotFoundException 當區間內有年份資料不存在時
+     */
+    private HolidayCalendarIndex requireCoverage(LocalDate from, LocalDate to) {
+        HolidayCalendarIndex current = getIndex();
+        if (!current.covers(from.getYear(), to.getYear())) {
+            log.warn("{} 至 {} 年度之間缺少假日資料。", from.getYear(), to.getYear());
+            throw new ResourceNotFoundException(
+                    "找不到 " + from.getYear() + " 至 " + to.getYear() + " 年度之間完整的假日資料");
+        }
+        return current;
+    }
+
+    /**
+     * 將索引中的單日資料轉為 {@link CalendarDay}。
+     */
+    private CalendarDay toCalendarDay(YearCalendar calendar, int epochDay) {
+        int entryIndex = calendar.entryIndexOf(epochDay);
+        CalendarDay.CalendarDayBuilder builder = CalendarDay.builder()
+                .date(YearCalendar.formatEpochDay(epochDay))
+                .workingDay(calendar.isWorkingDay(epochDay));
+        if (entryIndex >= 0) {
+            Holiday holiday = calendar.toHoliday(entryIndex);
+            builder.name(holiday.getName())
+                    .holidayCategory(holiday.getHolidayCategory())
+                    .description(holiday.getDescription())
+                    .note(holiday.getNote());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 掃描輸出目錄並建立索引快照。
+     *
+     * @return 索引快照，目錄不存在時回傳空索引
+     */
+    private HolidayCalendarIndex loadAll() {
+        Path outputDir = Paths.get(opendataProperties.holiday().outputDir());
+        if (!Files.isDirectory(outputDir)) {
+            log.warn("假日資料目錄不存在: {}", outputDir);
+            return HolidayCalendarIndex.EMPTY;
+        }
+
+        List<Path> yearFiles;
+        try (var files = Files.list(outputDir)) {
+            yearFiles = files
+                    .filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().matches(YEAR_FILE_PATTERN))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.error("掃描假日資料目錄失敗: {}", outputDir, e);
+            return HolidayCalendarIndex.EMPTY;
+        }
+
+        List<YearCalendar> calendars = new ArrayList<>();
+        for (Path file : yearFiles) {
+            YearCalendar calendar = loadYear(file);
+            if (calendar != null) {
+                calendars.add(calendar);
+            }
+        }
+
+        HolidayCalendarIndex loaded = new HolidayCalendarIndex(calendars);
+        log.info("已載入 {} 個年度的假日索引 (索引約 {} bytes，字串表 {} 筆約 {} bytes)",
+                calendars.size(), loaded.estimatedBytes(), stringTable.size(), stringTable.estimatedBytes());
+        return loaded;
+    }
+
+    /**
+     * 讀取單一年度 JSON 並建立年度索引。
+     *
+     * @param file 年度 JSON 檔案
+     * @return 年度索引，讀取失敗時回傳 null
+     */
+    private YearCalendar loadYear(Path file) {
+        String fileName = file.getFileName().toString();
+        int year = Integer.parseInt(fileName.substring(0, 4));
+        try {
+            // 先記錄修改時間再讀取，讀取期間若檔案再被改寫，會再收到一次變更事件並重新載入
+            long lastModified = lastModifiedOf(file);
+            List<Holiday> holidays = objectMapper.readValue(file.toFile(), new TypeReference<List<Holiday>>() {
+            });
+            YearCalendar calendar = YearCalendar.of(year, holidays, stringTable);
+            loadedLastModified.put(year, lastModified);
+            return calendar;
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("讀取 {} 年度假日資料時發生錯誤", year, e);
+            return null;
+        }
+    }
+
+    /**
+     * 取得年度 JSON 檔案路徑。
+     */
+    private Path yearFile(int year) {
+        return Paths.get(opendataProperties.holiday().outputDir(), year + ".json");
+    }
+
+    /**
+     * 取得檔案修改時間。
+     *
+     * @return 修改時間 (epoch 毫秒)，檔案不存在或無法讀取時回傳 -1
+     */
+    private long lastModifiedOf(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
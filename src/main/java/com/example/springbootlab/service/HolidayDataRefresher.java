@@ -0,0 +1,44 @@
+package com.example.springbootlab.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server Mode 定期資料抓取。
+ *
+ * <p>
+ * 依 {@code opendata.holiday.refresh-cron} (預設 {@code "-"} 停用) 於排程執行緒呼叫
+ * {@link FetchDataService#fetchAndProcess()}，不需另外啟動 {@code --job=fetch} 程序。
+ * 抓取與 Task Mode 互斥 (同程序 single-flight + 檔案鎖)；年度檔以原子搬移改寫後發布
+ * {@link com.example.springbootlab.event.HolidayDataChangedEvent}，
+ * 由 {@link HolidayCalendarService} 以 copy-on-write 替換索引快照，請求執行緒不受影響
+ * ({@link HolidayDataWatcher} 監看到同一次改寫時不再重複發布)。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication
+@RequiredArgsConstructor
+public class HolidayDataRefresher {
+
+    /** 資料抓取服務 */
+    private final FetchDataService fetchDataService;
+
+    /**
+     * 定期抓取假日資料。
+     */
+    @Scheduled(cron = "${opendata.holiday.refresh-cron:-}", zone = "Asia/Taipei")
+    public void refresh() {
+        log.info("開始排程抓取假日資料。");
+        if (!fetchDataService.fetchAndProcess()) {
+            log.info("排程抓取已略過 (其他更新作業執行中)。");
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.springbootlab.service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 假日資料目錄監看器 (僅 Server Mode)。
+ *
+ * <p>
+ * 以 {@link WatchService} 監看 {@code opendata.holiday.output-dir}，
+ * 當 {@code --job=fetch} / {@code --job=process} 等外部程序改寫 {@code {year}.json} 時，
+ * 於背景執行緒發布 {@link HolidayDataChangedEvent}，由 {@link HolidayCalendarService} 只重新載入該年度
+ * (copy-on-write 替換索引快照)，{@link PdfCache} 清除該年度快取；請求執行緒不需等待也不會讀到一半的資料。
+ * </p>
+ *
+ * <p>
+ * 短時間內的連續變更 (如原子搬移產生的多個事件) 會合併後一次處理。
+ * {@code years.json} 變更只代表年度可能增減：與目前已知的年度集合比對，只載入新增或移除的年度，
+ * 內容變更的年度由各自的 {@code {year}.json} 事件處理。事件溢位時才逐一重新載入目錄中所有年度。
+ * </p>
+ *
+ * <p>
+ * 同程序的排程抓取 ({@link HolidayDataRefresher}) 改寫後已自行發布變更事件：
+ * 收到事件時記錄該年度檔案的版本 (檔案識別、修改時間與大小)，監看到的變更與已處理的版本相同時不再重複發布，
+ * 每次改寫只重新載入並清除快取一次。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "opendata.holiday", name = "watch", havingValue = "true", matchIfMissing = true)
+public class HolidayDataWatcher {
+
+    /** 合併連續變更的等待時間 (毫秒) */
+    private static final long DEBOUNCE_MS = 200;
+
+    /** 年度 JSON 檔名格式 */
+    private static final Pattern YEAR_FILE = Pattern.compile("(\\d{4})\\.json");
+
+    /** 年份索引檔名 */
+    private static final String YEARS_FILE = "years.json";
+
+    /** 監看的目錄 */
+    private final Path outputDir;
+
+    /** 事件發布器 */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** 目錄中已知的年度 (僅由監看執行緒存取) */
+    private final Set<Integer> knownYears = new HashSet<>();
+
+    /** 各年度最後一次發布變更事件時的檔案版本 */
+    private final Map<Integer, FileVersion> handledVersions = new ConcurrentHashMap<>();
+
+    /** 監看服務 (未啟動時為 null) */
+    private volatile WatchService watchService;
+
+    /**
+     * 建立假日資料目錄監看器。
+     *
+     * @param opendataProperties 開放資料設定屬性
+     * @param eventPublisher     事件發布器
+     */
+    public HolidayDataWatcher(OpendataProperties opendataProperties, ApplicationEventPublisher eventPublisher) {
+        this.outputDir = Paths.get(opendataProperties.holiday().outputDir()).toAbsolutePath();
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 應用程式就緒後開始監看。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!Files.isDirectory(outputDir)) {
+            log.warn("假日資料目錄不存在，不啟用檔案監看: {}", outputDir);
+            return;
+        }
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            outputDir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            knownYears.addAll(listYears());
+            watchService = service;
+        } catch (IOException e) {
+            log.warn("無法監看假日資料目錄: {}", outputDir, e);
+            return;
+        }
+        Thread thread = new Thread(this::watchLoop, "holiday-data-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("開始監看假日資料目錄: {}", outputDir);
+    }
+
+    /**
+     * 記錄已發布變更事件的年度檔案版本 (包含其他元件發布的事件)。
+     *
+     * @param event 年度假日資料變更事件
+     */
+    @EventListener
+    public void onHolidayDataChanged(HolidayDataChangedEvent event) {
+        handledVersions.put(event.year(), FileVersion.of(yearFile(event.year())));
+    }
+
+    /**
+     * 停止監看。
+     */
+    @PreDestroy
+    public void stop() {
+        WatchService service = watchService;
+        watchService = null;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                log.debug("關閉檔案監看失敗", e);
+            }
+        }
+    }
+
+    /**
+     * 監看迴圈：等待第一個變更後持續收集至安靜 {@link #DEBOUNCE_MS} 毫秒，再一次處理。
+     */
+    private void watchLoop() {
+        WatchService service = watchService;
+        try {
+            while (service != null) {
+                WatchKey key = service.take();
+                Set<Integer> years = new TreeSet<>();
+                Changes changes = new Changes();
+                while (key != null) {
+                    collect(key, years, changes);
+                    if (!key.reset()) {
+                        log.warn("假日資料目錄已無法監看: {}", outputDir);
+                        return;
+                    }
+                    key = service.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+                }
+                if (changes.overflow || changes.yearsIndex) {
+                    Set<Integer> current = listYears();
+                    if (changes.overflow) {
+                        years.addAll(current);
+                    } else {
+                        // 只比對年度增減，未變更的年度不重新載入
+                        current.stream().filter(year -> !knownYears.contains(year)).forEach(years::add);
+                    }
+                    knownYears.stream().filter(year -> !current.contains(year)).forEach(years::add);
+                }
+                for (int year : years) {
+                    FileVersion version = FileVersion.of(yearFile(year));
+                    if (version != FileVersion.MISSING) {
+                        knownYears.add(year);
+                    } else {
+                        knownYears.remove(year);
+                    }
+                    if (version.equals(handledVersions.get(year))) {
+                        log.debug("{} 年度假日資料變更已處理，略過。", year);
+                        continue;
+                    }
+                    publish(year);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 應用程式關閉
+        }
+    }
+
+    /**
+     * 收集變更的年份，{@code years.json} 變更與事件溢位記錄於 {@code changes}。
+     */
+    private void collect(WatchKey key, Set<Integer> years, Changes changes) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changes.overflow = true;
+                continue;
+            }
+            String fileName = event.context().toString();
+            Matcher matcher = YEAR_FILE.matcher(fileName);
+            if (matcher.matches()) {
+                years.add(Integer.parseInt(matcher.group(1)));
+            } else if (YEARS_FILE.equals(fileName)) {
+                changes.yearsIndex = true;
+            }
+        }
+    }
+
+    /**
+     * 取得年度 JSON 檔案路徑。
+     */
+    private Path yearFile(int year) {
+        return outputDir.resolve(year + ".json");
+    }
+
+    /**
+     * 列出目錄中所有年度檔的年份。
+     */
+    private Set<Integer> listYears() {
+        Set<Integer> years = new TreeSet<>();
+        try (var files = Files.list(outputDir)) {
+            files.map(path -> YEAR_FILE.matcher(path.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .forEach(matcher -> years.add(Integer.parseInt(matcher.group(1))));
+        } catch (IOException e) {
+            log.warn("掃描假日資料目錄失敗: {}", outputDir, e);
+        }
+        return years;
+    }
+
+    /**
+     * 發布年度資料變更事件，監聽端的例外不中斷監看。
+     */
+    private void publish(int year) {
+        try {
+            log.info("偵測到 {} 年度假日資料變更，重新載入。", year);
+            eventPublisher.publishEvent(new HolidayDataChangedEvent(year));
+        } catch (RuntimeException e) {
+            log.error("處理 {} 年度假日資料變更失敗", year, e);
+        }
+    }
+
+    /**
+     * 年度檔案版本 (原子搬移改寫後檔案識別即不同)。
+     *
+     * @param fileKey      檔案識別 (檔案系統不支援時為 null)
+     * @param lastModified 修改時間
+     * @param size         檔案大小
+     */
+    private record FileVersion(Object fileKey, FileTime lastModified, long size) {
+
+        /** 檔案不存在 */
+        static final FileVersion MISSING = new FileVersion(null, null, -1);
+
+        static FileVersion of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return new FileVersion(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+            } catch (IOException e) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * 一次合併處理期間內，除年度檔以外的變更。
+     */
+    private static final class Changes {
+
+        /** {@code years.json} 是否變更 */
+        private boolean yearsIndex;
+
+        /** 是否發生事件溢位 */
+        private boolean overflow;
+    }
+}
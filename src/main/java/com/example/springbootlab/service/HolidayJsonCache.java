@@ -0,0 +1,203 @@
+package com.example.springbootlab.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.stereotype.Service;
+
+import com.example.springbootlab.exception.ResourceNotFoundException;
+import com.example.springbootlab.model.calendar.YearCalendar;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 年度假日 JSON 回應快取。
+ *
+ * <p>
+ * 每個年度只序列化一次：以不縮排的精簡 JSON 產生原始位元組，
+ * 並同時預先壓縮 gzip 與 deflate 兩種版本，請求時直接依 {@code Accept-Encoding} 回傳對應位元組，
+ * 不再經過 {@link ObjectMapper} 的 Pretty Print。
+ * </p>
+ *
+ * <p>
+ * 快取項目與 {@link YearCalendar} 實例綁定，只有當來源年度檔案變更、索引重新載入後才會重建。
+ * 請求路徑不檢查檔案 (不做 {@code stat} 也不重新解析)，索引由
+ * {@link com.example.springbootlab.event.HolidayDataChangedEvent} 於背景重新載入後，下一個請求即取得新版本。
+ * 建立時一併計算內容雜湊 (ETag) 與來源檔案修改時間 (Last-Modified)，供條件式請求使用。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class HolidayJsonCache {
+
+    /** gzip 編碼名稱 */
+    public static final String GZIP = "gzip";
+
+    /** deflate 編碼名稱 */
+    public static final String DEFLATE = "deflate";
+
+    /** 假日日曆索引服務 */
+    private final HolidayCalendarService holidayCalendarService;
+
+    /** 精簡 JSON 序列化器 (關閉縮排) */
+    private final ObjectWriter compactWriter;
+
+    /** 年度 JSON 快取 (Key: 年份) */
+    private final Map<Integer, EncodedJson> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 建立年度假日 JSON 回應快取。
+     *
+     * @param holidayCalendarService 假日日曆索引服務
+     * @param objectMapper           全域 ObjectMapper
+     */
+    public HolidayJsonCache(HolidayCalendarService holidayCalendarService, ObjectMapper objectMapper) {
+        this.holidayCalendarService = holidayCalendarService;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * 取得指定年度的預先序列化 JSON。
+     *
+     * @param year 西元年份
+     * @return 預先序列化與壓縮的 JSON
+     * @throws ResourceNotFoundException 當指定年份的資料不存在時
+     */
+    public EncodedJson getYear(int year) {
+        YearCalendar calendar = holidayCalendarService.getYearCalendar(year);
+        EncodedJson cached = cache.get(year);
+        if (cached != null && cached.source() == calendar) {
+            return cached;
+        }
+        return cache.compute(year, (key, existing) -> existing != null && existing.source() == calendar
+                ? existing
+                : encode(calendar));
+    }
+
+    /**
+     * 序列化並壓縮年度資料。
+     */
+    private EncodedJson encode(YearCalendar calendar) {
+        try {
+            byte[] identity = compactWriter.writeValueAsBytes(calendar.toHolidays());
+            byte[] gzip = compress(identity, new ByteArrayOutputStream(identity.length / 4), GZIP);
+            byte[] deflate = compress(identity, new ByteArrayOutputStream(identity.length / 4), DEFLATE);
+            String etag = DigestUtils.md5Hex(identity);
+            long lastModified = holidayCalendarService.getSourceLastModified(calendar.getYear());
+            log.info("已建立 {} 年度 JSON 快取 (原始 {} bytes, gzip {} bytes, deflate {} bytes)",
+                    calendar.getYear(), identity.length, gzip.length, deflate.length);
+            return new EncodedJson(calendar, identity, gzip, deflate, etag, lastModified);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("序列化 " + calendar.getYear() + " 年度假日資料失敗", e);
+        }
+    }
+
+    /**
+     * 以指定編碼壓縮位元組。
+     */
+    private byte[] compress(byte[] data, ByteArrayOutputStream buffer, String encoding) {
+        try (OutputStream out = GZIP.equals(encoding)
+                ? new GZIPOutputStream(buffer)
+                : new DeflaterOutputStream(buffer, new Deflater(Deflater.BEST_COMPRESSION))) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 預先序列化與壓縮的年度 JSON。
+     *
+     * @param source   來源年度索引 (用於判斷快取是否過期)
+     * @param identity 未壓縮的精簡 JSON
+     * @param gzip     gzip 壓縮版本
+     * @param deflate  deflate (zlib) 壓縮版本
+     * @param etag     未壓縮內容的雜湊值 (不含引號)
+     * @param lastModified 來源檔案修改時間 (epoch 毫秒，未知時為 -1)
+     */
+    public record EncodedJson(YearCalendar source, byte[] identity, byte[] gzip, byte[] deflate,
+            String etag, long lastModified) {
+
+        /**
+         * 依 {@code Accept-Encoding} 選擇回應版本，優先順序為 gzip、deflate、未壓縮。
+         *
+         * @param acceptEncoding 請求的 Accept-Encoding 標頭 (可為 null)
+         * @return 選定的編碼版本
+         */
+        public Variant negotiate(String acceptEncoding) {
+            if (accepts(acceptEncoding, GZIP)) {
+                return new Variant(GZIP, gzip, "\"" + etag + "-" + GZIP + "\"");
+            }
+            if (accepts(acceptEncoding, DEFLATE)) {
+                return new Variant(DEFLATE, deflate, "\"" + etag + "-" + DEFLATE + "\"");
+            }
+            return new Variant(null, identity, "\"" + etag + "\"");
+        }
+
+        /**
+         * 判斷 Accept-Encoding 是否接受指定編碼 (q=0 視為拒絕，明確列出的編碼優先於 *)。
+         */
+        private static boolean accepts(String acceptEncoding, String encoding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            Boolean wildcard = null;
+            for (String token : acceptEncoding.split(",")) {
+                String[] parts = token.trim().split(";");
+                String coding = parts[0].trim();
+                boolean accepted = true;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") && isZero(param.substring(2))) {
+                        accepted = false;
+                    }
+                }
+                if (coding.equalsIgnoreCase(encoding)) {
+                    return accepted;
+                }
+                if (coding.equals("*")) {
+                    wildcard = accepted;
+                }
+            }
+            return Boolean.TRUE.equals(wildcard);
+        }
+
+        private static boolean isZero(String quality) {
+            try {
+                return Double.parseDouble(quality.trim()) == 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 選定的回應版本。
+     *
+     * <p>
+     * 不同編碼的位元組內容不同，因此各自使用不同的強 ETag。
+     * </p>
+     *
+     * @param encoding Content-Encoding (未壓縮時為 null)
+     * @param body     回應位元組
+     * @param etag     該版本的強 ETag (含引號)
+     */
+    public record Variant(String encoding, byte[] body, String etag) {
+    }
+}
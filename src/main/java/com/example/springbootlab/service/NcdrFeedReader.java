@@ -0,0 +1,183 @@
+package com.example.springbootlab.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import com.example.springbootlab.model.ncdr.NcdrAlertIndex;
+import com.example.springbootlab.model.ncdr.NcdrEntry;
+import com.example.springbootlab.model.ncdr.NcdrSummary;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * NCDR JSON Atom Feed 串流讀取器。
+ *
+ * <p>
+ * 以 {@link JsonParser} 逐一讀取 token，只取出 {@code entry} 中的
+ * {@code id}、{@code title}、{@code updated} 與 {@code summary.#text}，
+ * 其餘欄位 (author、link、category 等) 與 feed 層級資料以 {@link JsonParser#skipChildren()} 略過，
+ * 摘要文字只解析一次發布地點，且只為能解析出發布地點的警報建立 {@link NcdrEntry}，
+ * 不再先反序列化整份 {@code NcdrHolidayResponse} 再過濾、建立索引時又解析一次。
+ * </p>
+ *
+ * <p>
+ * NCDR 在只有一筆警報時 {@code entry} 為物件而非陣列，兩種格式皆可讀取。
+ * </p>
+ *
+ * <p>
+ * 讀取的是 {@link NcdrFeedService} 已保存於記憶體的原始內容 (Feed 中繼需回傳原始位元組)，
+ * 並未減少原始內容的記憶體用量；省下的只有物件樹的建立 (基準測試中配置量約少 5%)，
+ * 效能改善主要來自 {@link NcdrAlertIndex#parseLocation(String)} 的地點解析。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+public final class NcdrFeedReader {
+
+    /** JSON 串流工廠 */
+    private final JsonFactory jsonFactory;
+
+    /**
+     * 建立 NCDR Feed 串流讀取器。
+     *
+     * @param jsonFactory JSON 串流工廠 (通常取自全域 ObjectMapper)
+     */
+    public NcdrFeedReader(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * 讀取 feed 並回傳能解析出發布地點的警報。
+     *
+     * @param in feed 內容 (讀取完畢後關閉)
+     * @return 符合條件的警報 (依 feed 順序)
+     * @throws IOException 當讀取失敗或 JSON 格式錯誤時
+     */
+    public List<NcdrEntry> read(InputStream in) throws IOException {
+        List<NcdrEntry> entries = new ArrayList<>();
+        read(in, (entry, location) -> {
+            if (location != null) {
+                entries.add(entry);
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * 讀取 feed 並直接建立警報索引。
+     *
+     * @param in feed 內容 (讀取完畢後關閉)
+     * @return 警報索引 (總筆數包含無法解析發布地點的警報)
+     * @throws IOException 當讀取失敗或 JSON 格式錯誤時
+     */
+    public NcdrAlertIndex readIndex(InputStream in) throws IOException {
+        NcdrAlertIndex.Builder builder = NcdrAlertIndex.builder();
+        read(in, builder::add);
+        return builder.build();
+    }
+
+    /**
+     * 逐 token 讀取 feed，將符合條件的警報與其發布地點交給 {@code sink}；
+     * 無法解析發布地點的警報不建立 {@link NcdrEntry}，以 {@code (null, null)} 交給 {@code sink} 計入總筆數。
+     */
+    private void read(InputStream in, BiConsumer<NcdrEntry, NcdrAlertIndex.Location> sink) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("NCDR feed 格式錯誤: 根節點不是物件");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"entry".equals(field)) {
+                    parser.skipChildren();
+                } else if (value == JsonToken.START_ARRAY) {
+                    JsonToken element;
+                    while ((element = parser.nextToken()) != JsonToken.END_ARRAY && element != null) {
+                        if (element == JsonToken.START_OBJECT) {
+                            readEntry(parser, sink);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if (value == JsonToken.START_OBJECT) {
+                    readEntry(parser, sink);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * 讀取單一 entry 物件 (目前 token 為 START_OBJECT) 並交給 {@code sink}。
+     */
+    private static void readEntry(JsonParser parser, BiConsumer<NcdrEntry, NcdrAlertIndex.Location> sink)
+            throws IOException {
+        String id = null;
+        String title = null;
+        String updated = null;
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = scalarText(parser, value);
+                case "title" -> title = scalarText(parser, value);
+                case "updated" -> updated = scalarText(parser, value);
+                case "summary" -> text = readSummaryText(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+
+        NcdrAlertIndex.Location location = NcdrAlertIndex.parseLocation(text);
+        if (location == null) {
+            sink.accept(null, null);
+            return;
+        }
+        NcdrSummary summary = new NcdrSummary();
+        summary.setText(text);
+        NcdrEntry entry = new NcdrEntry();
+        entry.setId(id);
+        entry.setTitle(title);
+        entry.setUpdated(updated);
+        entry.setSummary(summary);
+        sink.accept(entry, location);
+    }
+
+    /**
+     * 讀取 summary 物件中的 {@code #text}。
+     */
+    private static String readSummaryText(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken fieldValue = parser.nextToken();
+            if ("#text".equals(field)) {
+                text = scalarText(parser, fieldValue);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return text;
+    }
+
+    /**
+     * 取得純量值的文字 (物件或陣列略過並回傳 null)。
+     */
+    private static String scalarText(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.springbootlab.service;
+
+import java.io.InputStream;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.example.springbootlab.config.HttpClientConfig;
+import com.example.springbootlab.config.NcdrProperties;
+import com.example.springbootlab.model.ncdr.NcdrFeed;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * NCDR 停班停課 Feed 抓取服務。
+ *
+ * <p>
+ * 應用程式內唯一向 {@code ncdr.url} 抓取的元件：原始 Feed 保存於記憶體，
+ * Feed 中繼 API ({@code NcdrFeedRelayController}) 直接回傳，
+ * {@link RealTimeHolidayService} 則於內容變更時由同一次抓取結果建立警報索引，每個 TTL 只查詢上游一次。
+ * </p>
+ *
+ * <p>
+ * 快取策略 (stale-while-revalidate，配置見 {@code ncdr.realtime})：
+ * <ul>
+ * <li>快取未到期前直接回傳；進入到期前的 {@code refresh-ahead} 區間時，於背景重新驗證並先回傳目前的值。</li>
+ * <li>到期後 {@code max-stale} 內仍回傳最後一次成功的內容並於背景重新驗證；超過後才等待重新驗證。</li>
+ * <li>同一時間只有一個上游請求 (single-flight)，同時到達的請求共用同一次結果。</li>
+ * <li>重新驗證時帶上上游的 {@code ETag} / {@code Last-Modified}，上游回應 304 時只延長有效時間，不重新傳輸內容。</li>
+ * <li>抓取失敗時保留最後一次成功的內容，並在 {@code retry-interval} 內不再重試。</li>
+ * </ul>
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class NcdrFeedService {
+
+    private final RestClient restClient;
+
+    /** NCDR 配置 */
+    private final NcdrProperties properties;
+
+    /** 快取時間來源 */
+    private final Clock clock;
+
+    /** 內容變更時的通知對象 (於背景抓取執行緒呼叫) */
+    private final List<Consumer<NcdrFeed>> listeners = new CopyOnWriteArrayList<>();
+
+    /** 最後一次成功抓取的 Feed (尚未成功抓取時為 null) */
+    private final AtomicReference<NcdrFeed> current = new AtomicReference<>();
+
+    /** 進行中的上游請求 (single-flight) */
+    private final AtomicReference<CompletableFuture<NcdrFeed>> inFlight = new AtomicReference<>();
+
+    /** 抓取失敗後，在此時間 (epoch 毫秒) 之前不再重試 */
+    private volatile long retryAfterMillis;
+
+    /**
+     * 建立 NCDR 停班停課 Feed 抓取服務。
+     *
+     * @param properties     NCDR 配置
+     * @param requestFactory NCDR 查詢用的 HTTP 請求工廠 (依是否啟用虛擬執行緒而定，見 {@link HttpClientConfig})
+     * @param clock          快取時間來源
+     */
+    @Autowired
+    public NcdrFeedService(@NonNull NcdrProperties properties, @NonNull ClientHttpRequestFactory requestFactory,
+            @NonNull Clock clock) {
+        this.restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .build();
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * 註冊內容變更通知 (上游回應 304 或內容相同時不通知)。
+     *
+     * <p>
+     * 通知於背景抓取執行緒、完成等待中的請求之前呼叫，等待重新抓取的請求回傳時已反映新內容。
+     * </p>
+     *
+     * @param listener 通知對象
+     */
+    public void addFeedListener(Consumer<NcdrFeed> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 取得目前的 Feed (依快取狀態決定直接回傳、背景重新驗證或等待重新驗證)。
+     *
+     * @return Feed，從未成功抓取時回傳 null
+     */
+    public NcdrFeed getFeed() {
+        long now = clock.millis();
+        NcdrFeed feed = current.get();
+        if (feed == null) {
+            return awaitRefresh(now, null);
+        }
+
+        NcdrProperties.Realtime realtime = properties.realtime();
+        long age = now - feed.validatedAtMillis();
+        long ttl = realtime.ttl().toMillis();
+        if (age < ttl - realtime.refreshAhead().toMillis()) {
+            return feed;
+        }
+        if (age < ttl + realtime.maxStale().toMillis()) {
+            // 即將到期或剛到期：先回傳目前的值，於背景重新驗證
+            refresh(now);
+            return feed;
+        }
+        return awaitRefresh(now, feed);
+    }
+
+    /**
+     * 等待重新抓取完成，失敗 (或仍在重試間隔內) 時回傳指定的舊值。
+     */
+    private NcdrFeed awaitRefresh(long now, NcdrFeed fallback) {
+        CompletableFuture<NcdrFeed> refresh = refresh(now);
+        if (refresh == null) {
+            return fallback;
+        }
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * 於背景虛擬執行緒重新抓取，已有抓取進行中時共用同一個結果。
+     *
+     * @return 抓取結果；仍在失敗後的重試間隔內時回傳 null
+     */
+    private CompletableFuture<NcdrFeed> refresh(long now) {
+        while (true) {
+            CompletableFuture<NcdrFeed> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            if (now < retryAfterMillis) {
+                return null;
+            }
+            CompletableFuture<NcdrFeed> future = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, future)) {
+                Thread.ofVirtual().name("ncdr-refresh").start(() -> load(future));
+                return future;
+            }
+        }
+    }
+
+    /**
+     * 向上游重新驗證 (或首次抓取) Feed 並更新快取。
+     *
+     * <p>
+     * 無論成功或失敗 (包含 {@link Error})，結束時一定清除並完成進行中的請求，
+     * 否則等待中的請求會永遠等待，之後也不會再重新抓取。
+     * </p>
+     */
+    private void load(CompletableFuture<NcdrFeed> future) {
+        long start = System.nanoTime();
+        NcdrFeed feed = null;
+        Throwable failure = null;
+        try {
+            NcdrFeed previous = current.get();
+            feed = fetch(previous);
+            current.set(feed);
+            if (previous != null && feed.etag().equals(previous.etag())) {
+                log.debug("NCDR Feed 未變更 (耗時 {} ms)", (System.nanoTime() - start) / 1_000_000);
+            } else {
+                log.info("已更新 NCDR Feed ({} bytes，耗時 {} ms)", feed.body().length,
+                        (System.nanoTime() - start) / 1_000_000);
+                notifyListeners(feed);
+            }
+        } catch (Throwable e) {
+            failure = e;
+            retryAfterMillis = clock.millis() + properties.realtime().retryInterval().toMillis();
+            log.error("查詢 NCDR 停班停課 Feed 失敗: {}", e.getMessage());
+        } finally {
+            inFlight.set(null);
+            if (failure == null) {
+                future.complete(feed);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+    }
+
+    /**
+     * 通知內容變更，個別通知對象的例外不影響快取更新。
+     */
+    private void notifyListeners(NcdrFeed feed) {
+        for (Consumer<NcdrFeed> listener : listeners) {
+            try {
+                listener.accept(feed);
+            } catch (RuntimeException e) {
+                log.error("處理 NCDR Feed 變更失敗", e);
+            }
+        }
+    }
+
+    /**
+     * 以條件式請求抓取 Feed。
+     *
+     * @param previous 目前的內容 (首次抓取時為 null)
+     * @return 新的內容；上游回應 304 時為延長有效時間後的目前內容
+     * @throws org.springframework.web.client.RestClientException 當上游請求失敗時
+     */
+    private NcdrFeed fetch(NcdrFeed previous) {
+        return restClient.get()
+                .uri(properties.url())
+                .headers(headers -> {
+                    if (previous != null && previous.upstreamEtag() != null) {
+                        headers.set(HttpHeaders.IF_NONE_MATCH, previous.upstreamEtag());
+                    }
+                    if (previous != null && previous.upstreamLastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.upstreamLastModified());
+                    }
+                })
+                .exchange((request, response) -> {
+                    long now = clock.millis();
+                    if (previous != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return previous.revalidated(now);
+                    }
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        throw new RestClientResponseException(
+                                response.getStatusCode().value() + " " + response.getStatusText(),
+                                response.getStatusCode(), response.getStatusText(), response.getHeaders(), null, null);
+                    }
+                    byte[] body;
+                    try (InputStream in = response.getBody()) {
+                        body = in.readAllBytes();
+                    }
+                    HttpHeaders headers = response.getHeaders();
+                    String etag = "\"" + DigestUtils.md5Hex(body) + "\"";
+                    // 內容相同 (上游不支援條件式請求時) 沿用原本的變更時間，用戶端 ETag 亦不變
+                    long changedAt = previous != null && previous.etag().equals(etag) ? previous.changedAtMillis()
+                            : now;
+                    MediaType contentType = headers.getContentType() != null ? headers.getContentType()
+                            : MediaType.APPLICATION_JSON;
+                    return new NcdrFeed(body, contentType, etag, headers.getETag(),
+                            headers.getFirst(HttpHeaders.LAST_MODIFIED), changedAt, now);
+                });
+    }
+}
@@ -0,0 +1,409 @@
+package com.example.springbootlab.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import com.example.springbootlab.config.PdfProperties;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 年度假日 PDF 快取。
+ *
+ * <p>
+ * 以年份、年度資料內容雜湊與 PDF 版面版本作為 Key，將產生的 PDF 直接寫入快取目錄中的檔案，
+ * 回應時由檔案串流輸出，不在 heap 中保留整份文件。
+ * 依最近最少使用 (LRU) 順序淘汰，並同時限制檔案總大小與筆數。
+ * 年度資料改寫時 (收到 {@link HolidayDataChangedEvent}) 清除該年度的所有項目。
+ * </p>
+ *
+ * <p>
+ * 提供以下 Micrometer 指標：
+ * <ul>
+ * <li>{@code holiday.pdf.cache.gets} (tag: {@code result=hit|miss})</li>
+ * <li>{@code holiday.pdf.cache.evictions}</li>
+ * <li>{@code holiday.pdf.cache.size} / {@code holiday.pdf.cache.bytes}</li>
+ * </ul>
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class PdfCache {
+
+    /** 快取檔名前綴 */
+    private static final String FILE_PREFIX = "holiday-";
+
+    /** 快取檔案總大小上限 (bytes) */
+    private final long maxBytes;
+
+    /** 快取筆數上限 */
+    private final int maxEntries;
+
+    /** 快取檔案目錄 */
+    private final Path directory;
+
+    /** 快取目錄是否為自動建立的暫存目錄 (關閉時整個刪除) */
+    private final boolean temporaryDirectory;
+
+    /** 快取項目 (存取順序，最舊者在前) */
+    private final LinkedHashMap<Key, CachedPdf> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 目前快取檔案總大小 (bytes) */
+    private long totalBytes;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter evictions;
+
+    /**
+     * 建立 PDF 快取並準備快取目錄。
+     *
+     * @param pdfProperties PDF 配置屬性
+     * @param meterRegistry 指標註冊器
+     */
+    public PdfCache(PdfProperties pdfProperties, MeterRegistry meterRegistry) {
+        PdfProperties.Cache cache = pdfProperties.cache();
+        this.maxBytes = cache.maxSize().toBytes();
+        this.maxEntries = cache.maxEntries();
+        this.temporaryDirectory = !StringUtils.hasText(cache.directory());
+        this.directory = prepareDirectory(cache.directory());
+
+        this.hits = Counter.builder("holiday.pdf.cache.gets").tag("result", "hit")
+                .description("PDF 快取命中次數").register(meterRegistry);
+        this.misses = Counter.builder("holiday.pdf.cache.gets").tag("result", "miss")
+                .description("PDF 快取未命中次數").register(meterRegistry);
+        this.evictions = Counter.builder("holiday.pdf.cache.evictions")
+                .description("PDF 快取淘汰次數").register(meterRegistry);
+        Gauge.builder("holiday.pdf.cache.size", this, PdfCache::size)
+                .description("PDF 快取筆數").register(meterRegistry);
+        Gauge.builder("holiday.pdf.cache.bytes", this, PdfCache::totalBytes)
+                .description("PDF 快取檔案總大小").baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * 取得快取的 PDF。
+     *
+     * @param key 快取 Key
+     * @return 快取的 PDF 檔案，未命中 (或檔案已被外部刪除) 時回傳 null
+     */
+    public synchronized CachedPdf get(Key key) {
+        CachedPdf pdf = entries.get(key);
+        if (pdf != null && !Files.isRegularFile(pdf.file())) {
+            entries.remove(key);
+            totalBytes -= pdf.size();
+            pdf = null;
+        }
+        (pdf != null ? hits : misses).increment();
+        return pdf;
+    }
+
+    /**
+     * 以指定的寫出方式產生 PDF 檔案並放入快取，依大小與筆數上限淘汰最久未使用的項目。
+     *
+     * <p>
+     * 先寫入同目錄的暫存檔，完成後才搬移至正式檔名，讀取端不會看到寫到一半的檔案。
+     * 單一 PDF 超過總大小上限時不放入快取，回傳標示為暫時性的檔案，由呼叫端於輸出後呼叫 {@link CachedPdf#release()} 刪除。
+     * </p>
+     *
+     * @param key    快取 Key
+     * @param writer PDF 寫出方式
+     * @return 快取的 PDF 檔案
+     * @throws IOException 當寫出失敗時
+     */
+    public CachedPdf store(Key key, PdfWriter writer) throws IOException {
+        Path tempFile = Files.createTempFile(directory, FILE_PREFIX, ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                writer.write(out);
+            }
+            long size = Files.size(tempFile);
+            if (size > maxBytes || maxEntries <= 0) {
+                log.warn("{} 年度 PDF ({} bytes) 超過快取上限，不予快取。", key.year(), size);
+                return new CachedPdf(tempFile, size, true);
+            }
+            Path file = directory.resolve(key.fileName());
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            CachedPdf pdf = new CachedPdf(file, size, false);
+            register(key, pdf);
+            return pdf;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 清除指定年度的所有快取項目。
+     *
+     * @param year 西元年份
+     * @return 清除的筆數
+     */
+    public synchronized int invalidateYear(int year) {
+        int removed = 0;
+        Iterator<Map.Entry<Key, CachedPdf>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, CachedPdf> entry = it.next();
+            if (entry.getKey().year() == year) {
+                it.remove();
+                discard(entry.getValue());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 年度資料變更時清除該年度的 PDF。
+     *
+     * @param event 年度假日資料變更事件
+     */
+    @EventListener
+    public void onHolidayDataChanged(HolidayDataChangedEvent event) {
+        int removed = invalidateYear(event.year());
+        if (removed > 0) {
+            log.info("{} 年度假日資料已變更，清除 {} 筆 PDF 快取。", event.year(), removed);
+        }
+    }
+
+    /**
+     * 取得快取筆數。
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 取得快取檔案總大小 (bytes)。
+     */
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * 關閉時清除快取檔案。
+     */
+    @PreDestroy
+    public synchronized void close() {
+        entries.values().forEach(this::discard);
+        entries.clear();
+        if (temporaryDirectory) {
+            try {
+                FileSystemUtils.deleteRecursively(directory);
+            } catch (IOException e) {
+                log.debug("刪除 PDF 快取目錄失敗: {}", directory, e);
+            }
+        }
+    }
+
+    /**
+     * 登錄快取項目並淘汰超出上限的舊項目。
+     */
+    private synchronized void register(Key key, CachedPdf pdf) {
+        CachedPdf previous = entries.put(key, pdf);
+        totalBytes += pdf.size() - (previous != null ? previous.size() : 0);
+
+        Iterator<Map.Entry<Key, CachedPdf>> it = entries.entrySet().iterator();
+        while ((totalBytes > maxBytes || entries.size() > maxEntries) && it.hasNext()) {
+            Map.Entry<Key, CachedPdf> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            it.remove();
+            discard(eldest.getValue());
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 移除快取檔案並扣除總大小。
+     *
+     * <p>
+     * 輸出中的檔案在 POSIX 系統上刪除後仍可讀取至結束；無法刪除時 (例如 Windows 檔案鎖定) 於程式結束時再刪除。
+     * </p>
+     */
+    private void discard(CachedPdf pdf) {
+        totalBytes -= pdf.size();
+        try {
+            Files.deleteIfExists(pdf.file());
+        } catch (IOException e) {
+            pdf.file().toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * 建立快取目錄，並清除前次執行遺留的快取檔案。
+     */
+    private static Path prepareDirectory(String configured) {
+        try {
+            if (!StringUtils.hasText(configured)) {
+                return Files.createTempDirectory("holiday-pdf-");
+            }
+            Path dir = Files.createDirectories(Paths.get(configured));
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(dir, FILE_PREFIX + "*")) {
+                for (Path file : stale) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法建立 PDF 快取目錄: " + configured, e);
+        }
+    }
+
+    /**
+     * PDF 寫出方式。
+     */
+    @FunctionalInterface
+    public interface PdfWriter {
+
+        /**
+         * 將 PDF 寫出至輸出串流 (不需關閉串流)。
+         *
+         * @param out 輸出串流
+         * @throws IOException 當寫出失敗時
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * 快取的 PDF 檔案。
+     *
+     * <p>
+     * 未放入快取的暫時檔案以參考計數管理：建立時持有一個參考，多個請求共用同一次產生結果時由
+     * {@link PdfRenderExecutor} 依請求數增加參考，每個請求結束 (含逾時、連線中斷) 後呼叫 {@link #release()}，
+     * 最後一個請求結束時才刪除檔案。快取檔案則由快取淘汰時刪除，{@link #retain(int)} / {@link #release()} 不作用。
+     * </p>
+     */
+    public static final class CachedPdf {
+
+        /** 檔案路徑 */
+        private final Path file;
+
+        /** 檔案大小 (bytes) */
+        private final long size;
+
+        /** 是否為未放入快取的暫時檔案 */
+        private final boolean temporary;
+
+        /** 尚未結束的請求數 (僅暫時檔案使用) */
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        /**
+         * 建立快取的 PDF 檔案。
+         *
+         * @param file      檔案路徑
+         * @param size      檔案大小 (bytes)
+         * @param temporary 是否為未放入快取的暫時檔案 (最後一個請求輸出後刪除)
+         */
+        public CachedPdf(Path file, long size, boolean temporary) {
+            this.file = file;
+            this.size = size;
+            this.temporary = temporary;
+        }
+
+        /**
+         * 取得檔案路徑。
+         */
+        public Path file() {
+            return file;
+        }
+
+        /**
+         * 取得檔案大小 (bytes)。
+         */
+        public long size() {
+            return size;
+        }
+
+        /**
+         * 是否為未放入快取的暫時檔案。
+         */
+        public boolean temporary() {
+            return temporary;
+        }
+
+        /**
+         * 增加共用此結果的請求數。
+         *
+         * @param count 增加的請求數
+         */
+        public void retain(int count) {
+            if (temporary) {
+                references.addAndGet(count);
+            }
+        }
+
+        /**
+         * 結束一個請求的輸出；暫時檔案於最後一個請求結束時刪除。
+         */
+        public void release() {
+            if (temporary && references.decrementAndGet() == 0) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit();
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CachedPdf other && file.equals(other.file) && size == other.size
+                    && temporary == other.temporary;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, size, temporary);
+        }
+
+        @Override
+        public String toString() {
+            return "CachedPdf[file=" + file + ", size=" + size + ", temporary=" + temporary + "]";
+        }
+    }
+
+    /**
+     * PDF 快取 Key。
+     *
+     * @param year            西元年份
+     * @param contentHash     年度資料內容雜湊
+     * @param templateVersion PDF 版面版本
+     */
+    public record Key(int year, String contentHash, String templateVersion) {
+
+        /**
+         * 取得對應的快取檔名。
+         */
+        String fileName() {
+            return FILE_PREFIX + year + "-" + contentHash + "-v" + templateVersion + ".pdf";
+        }
+    }
+}
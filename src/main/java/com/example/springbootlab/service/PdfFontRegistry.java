@@ -0,0 +1,189 @@
+package com.example.springbootlab.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import com.example.springbootlab.config.PdfProperties;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PDF 字型登錄服務。
+ *
+ * <p>
+ * 啟動時一次性讀取字型檔位元組，並保留已解析的 {@link TrueTypeFont} 供各次產生 PDF 重複使用，
+ * 不再於每次產生時重新讀取與解析數 MB 的 CJK 字型。
+ * 每份 PDF 仍會以 {@code PDType0Font.load(document, font, true)} 只嵌入實際使用的字形 (subset)。
+ * </p>
+ *
+ * <p>
+ * {@link TrueTypeFont} 於嵌入子集時會讀取內部資料流，不可同時被多份文件使用，
+ * 因此以物件池管理：最多解析 {@code pdf.font.pool-size} 份，全部使用中時等待歸還。
+ * 找不到字型檔時僅記錄一次警告，PDF 會以預設字型產生。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class PdfFontRegistry {
+
+    /** 字型名稱 (對應 CSS font-family) */
+    private final String family;
+
+    /** 字型檔位元組 (找不到字型時為 null) */
+    private final byte[] fontBytes;
+
+    /** 已解析且目前閒置的字型 */
+    private final BlockingQueue<TrueTypeFont> idle;
+
+    /** 已解析的字型數量 */
+    private final AtomicInteger created = new AtomicInteger();
+
+    /** 已解析字型的最大數量 */
+    private final int poolSize;
+
+    /**
+     * 建立字型登錄服務並載入字型檔。
+     *
+     * @param pdfProperties  PDF 配置屬性
+     * @param resourceLoader 資源載入器
+     */
+    public PdfFontRegistry(PdfProperties pdfProperties, ResourceLoader resourceLoader) {
+        PdfProperties.Font font = pdfProperties.font();
+        this.family = font.family();
+        this.poolSize = Math.max(1, font.poolSize());
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        this.fontBytes = loadFontBytes(resourceLoader.getResource(font.location()));
+    }
+
+    /**
+     * 是否已成功載入字型。
+     */
+    public boolean isAvailable() {
+        return fontBytes != null;
+    }
+
+    /**
+     * 取得字型名稱 (對應 CSS font-family)。
+     */
+    public String getFamily() {
+        return family;
+    }
+
+    /**
+     * 借出一份已解析的字型，使用完畢後需關閉以歸還。
+     *
+     * @return 字型租借，字型不可用時回傳 null
+     * @throws IOException 當字型解析失敗或等待時被中斷
+     */
+    public FontLease acquire() throws IOException {
+        if (fontBytes == null) {
+            return null;
+        }
+        TrueTypeFont font = idle.poll();
+        if (font == null) {
+            if (created.incrementAndGet() <= poolSize) {
+                try {
+                    font = parse();
+                } catch (IOException | RuntimeException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            } else {
+                created.decrementAndGet();
+                try {
+                    font = idle.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("等待 PDF 字型時被中斷");
+                }
+            }
+        }
+        return new FontLease(font);
+    }
+
+    /**
+     * 關閉所有閒置的已解析字型。
+     */
+    @PreDestroy
+    public void close() {
+        TrueTypeFont font;
+        while ((font = idle.poll()) != null) {
+            try {
+                font.close();
+            } catch (IOException e) {
+                log.debug("關閉字型時發生錯誤", e);
+            }
+        }
+    }
+
+    /**
+     * 讀取字型檔，並試解析一次以確認格式正確。
+     *
+     * @return 字型檔位元組，找不到或無法解析時回傳 null
+     */
+    private byte[] loadFontBytes(Resource resource) {
+        if (!resource.exists()) {
+            log.warn("找不到 PDF 字型 {} ({})，中文顯示可能會異常", family, resource.getDescription());
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            byte[] bytes = in.readAllBytes();
+            try (TrueTypeFont font = new TTFParser().parse(new ByteArrayInputStream(bytes))) {
+                log.info("已載入 PDF 字型 {} ({} bytes, {} glyphs)", family, bytes.length, font.getNumberOfGlyphs());
+            }
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            log.error("載入 PDF 字型 {} 時發生錯誤，將使用預設字型", family, e);
+            return null;
+        }
+    }
+
+    /**
+     * 由字型檔位元組解析字型。
+     */
+    private TrueTypeFont parse() throws IOException {
+        return new TTFParser().parse(new ByteArrayInputStream(fontBytes));
+    }
+
+    /**
+     * 字型租借，關閉時將字型歸還物件池。
+     */
+    public final class FontLease implements AutoCloseable {
+
+        private TrueTypeFont font;
+
+        private FontLease(TrueTypeFont font) {
+            this.font = font;
+        }
+
+        /**
+         * 取得租借的字型。
+         */
+        public TrueTypeFont font() {
+            return font;
+        }
+
+        @Override
+        public void close() {
+            if (font != null) {
+                idle.offer(font);
+                font = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package com.example.springbootlab.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.ClassPathResource;
+
+import com.example.springbootlab.model.Holiday;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 年度假日 PDF 的預先編譯 HTML 範本。
+ *
+ * <p>
+ * 範本中固定不變的片段 (文件標頭與 CSS、{@code static/list-styles.css}、表格標題、附件列表與結尾)
+ * 於建立時組合一次，產生時只需依序寫入年份與各列資料：
+ * <ul>
+ * <li>各欄位以單次掃描的跳脫方法直接寫入輸出緩衝，不產生中間字串</li>
+ * <li>輸出緩衝依固定片段長度與資料筆數預先配置容量，避免擴容複製，
+ * 並於同一執行緒 (PDF 產生執行緒池) 的各次產生間重複使用</li>
+ * </ul>
+ * 產生結果與原本逐段組合的 HTML 完全相同。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+public class PdfHtmlTemplate {
+
+    /** 每列資料的預估字元數 (用於預先配置輸出緩衝) */
+    private static final int ESTIMATED_ROW_LENGTH = 320;
+
+    /** 可重複使用的輸出緩衝容量上限 (字元數)，超過時不保留 */
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    /** 列表樣式檔位置 */
+    private static final String LIST_STYLES_LOCATION = "static/list-styles.css";
+
+    /** 基本樣式 */
+    private static final String BASIC_STYLE = """
+
+
+
+                    <style>
+
+                        @page {
+
+                            size: A4;
+
+                            margin: 15mm;
+
+                            @bottom-center {
+
+                                content: "Page " counter(page) " of " counter(pages);
+
+                                font-family: 'Noto Sans CJK TC', sans-serif;
+
+                                font-size: 10pt;
+
+                                color: #777;
+
+                            }
+
+                        }
+
+                        body {
+
+                            font-family: 'Noto Sans CJK TC', sans-serif;
+
+                            font-size: 11pt;
+
+                            line-height: 1.4;
+
+                            color: #333;
+
+                        }
+
+                        h1 {
+
+                            text-align: center;
+
+                            color: #1e3c72; /* Dark Blue */
+
+                            margin-bottom: 20px;
+
+                            font-size: 20pt;
+
+                        }
+
+                        table {
+
+                            width: 100%;
+
+                            border-collapse: collapse;
+
+                            border-spacing: 0;
+
+                            margin-top: 10px;
+
+                            -fs-table-paginate: paginate; /* 優化分頁 */
+
+                        }
+
+                        thead {
+
+                            display: table-header-group; /* 關鍵：每一頁重複顯示標題 */
+
+                        }
+
+                        tr {
+
+                            page-break-inside: avoid; /* 避免列內容被切斷 */
+
+                        }
+
+                        th, td {
+
+                            border: 1px solid #dee2e6;
+
+                            padding: 10px;
+
+                            vertical-align: middle;
+
+                        }
+
+                        th {
+
+                            background-color: #2a5298; /* Header Blue */
+
+                            color: #ffffff;
+
+                            font-weight: bold;
+
+                            text-align: center;
+
+                            font-size: 11pt;
+
+                        }
+
+                        tr:nth-child(even) {
+
+                            background-color: #f8f9fa;
+
+                        }
+
+                        .text-center {
+
+                            text-align: center;
+
+                        }
+
+                        .badge {
+
+                            display: inline-block;
+
+                            padding: 4px 10px;
+
+                            border-radius: 12px;
+
+                            color: #fff;
+
+                            font-size: 10pt;
+
+                            font-weight: bold;
+
+                            text-align: center;
+
+                            white-space: nowrap;
+
+                        }
+
+                        .badge-yes {
+
+                            background-color: #e03131; /* Red */
+
+                        }
+
+                        .badge-no {
+
+                            background-color: #2f9e44; /* Green */
+
+                        }
+
+                        .note {
+
+                            font-size: 0.9em;
+
+                            color: #666;
+
+                            margin-top: 4px;
+
+                            display: block;
+
+                        }
+
+                        /* 自定義國字編號樣式 (原始方法) */
+
+                        .chinese-numbers {
+
+                            list-style: none;
+
+                            padding-left: 0;
+
+                            margin-left: 0;
+
+                        }
+
+
+
+                        .chinese-numbers > li:nth-child(1)::before {
+
+                            content: "一、";
+
+                            font-weight: bold;
+
+                        }
+
+
+
+                        .chinese-numbers > li:nth-child(2)::before {
+
+                            content: "二、";
+
+                            font-weight: bold;
+
+                        }
+
+
+
+                        .chinese-numbers > li:nth-child(3)::before {
+
+                            content: "三、";
+
+                            font-weight: bold;
+
+                        }
+
+
+
+                        .chinese-numbers > li {
+
+                            position: relative;
+
+                            padding-left: 30px;
+
+                            margin-bottom: 8px;
+
+                        }
+
+                """;
+
+    /** 文件開頭至標題前的固定片段 (含完整 CSS) */
+    private final String head;
+
+    /** 各執行緒重複使用的輸出緩衝 */
+    private final ThreadLocal<StringBuilder> buffers = new ThreadLocal<>();
+
+    /** 標題後至表格內容前的固定片段 */
+    private static final String TABLE_HEADER = "年中華民國政府行政機關辦公日曆表</h1>"
+            + "<table>"
+            + "<thead><tr>"
+            + "<th style='width: 18%'>日期</th>"
+            + "<th style='width: 12%'>放假</th>"
+            + "<th style='width: 25%'>節日名稱</th>"
+            + "<th style='width: 15%'>類別</th>"
+            + "<th style='width: 30%'>說明</th>"
+            + "</tr></thead>"
+            + "<tbody>";
+
+    /** 表格結束至文件結尾的固定片段 (含附件列表) */
+    private static final String TAIL = "</tbody></table>" + buildAppendix() + "</body></html>";
+
+    /**
+     * 以 classpath 中的列表樣式建立範本。
+     *
+     * @return HTML 範本
+     */
+    public static PdfHtmlTemplate load() {
+        return new PdfHtmlTemplate(loadListStyles());
+    }
+
+    /**
+     * 建立 HTML 範本。
+     *
+     * @param listStyles 額外的列表樣式 CSS
+     */
+    public PdfHtmlTemplate(String listStyles) {
+        this.head = "<!DOCTYPE html>"
+                + "<html><head><meta charset='UTF-8'/>"
+                + BASIC_STYLE + listStyles + "</style>"
+                + "</head><body>"
+                + "<h1>";
+    }
+
+    /**
+     * 產生年度假日 PDF 的 HTML 內容。
+     *
+     * @param year     西元年份
+     * @param holidays 假日資料列表
+     * @return HTML 內容
+     */
+    public String render(String year, List<Holiday> holidays) {
+        int capacity = head.length() + TABLE_HEADER.length() + TAIL.length()
+                + holidays.size() * ESTIMATED_ROW_LENGTH;
+        StringBuilder sb = buffers.get();
+        if (sb == null || capacity > MAX_RETAINED_CAPACITY) {
+            sb = new StringBuilder(capacity);
+        } else {
+            sb.setLength(0);
+            sb.ensureCapacity(capacity);
+        }
+
+        sb.append(head).append(year).append(' ').append(TABLE_HEADER);
+        for (Holiday holiday : holidays) {
+            appendRow(sb, holiday);
+        }
+        String html = sb.append(TAIL).toString();
+
+        if (sb.capacity() <= MAX_RETAINED_CAPACITY) {
+            buffers.set(sb);
+        }
+        return html;
+    }
+
+    /**
+     * 寫入單列假日資料。
+     */
+    private static void appendRow(StringBuilder sb, Holiday holiday) {
+        // 日期 (格式化為 YYYY/MM/DD)
+        String date = holiday.getDate();
+        sb.append("<tr><td class='text-center'>");
+        if (date != null && date.length() == 8) {
+            sb.append(date, 0, 4).append('/').append(date, 4, 6).append('/').append(date, 6, 8);
+        } else {
+            sb.append(date);
+        }
+
+        // 是否放假 (使用 Badge 樣式)
+        sb.append(holiday.isHoliday()
+                ? "</td><td class='text-center'><span class='badge badge-yes'>放假</span></td><td>"
+                : "</td><td class='text-center'><span class='badge badge-no'>上班</span></td><td>");
+
+        // 名稱、類別、說明 (加上 Note)
+        appendEscaped(sb, holiday.getName());
+        sb.append("</td><td class='text-center'>");
+        appendEscaped(sb, holiday.getHolidayCategory());
+        sb.append("</td><td>");
+        appendEscaped(sb, holiday.getDescription());
+        if (holiday.getNote() != null && !holiday.getNote().isEmpty()) {
+            sb.append("<br/><span class='note'>(");
+            appendEscaped(sb, holiday.getNote());
+            sb.append(")</span>");
+        }
+        sb.append("</td></tr>");
+    }
+
+    /**
+     * 以單次掃描跳脫 HTML 特殊字元並寫入緩衝 (null 視為空字串)。
+     *
+     * @param sb    輸出緩衝
+     * @param input 原始文字
+     */
+    static void appendEscaped(StringBuilder sb, String input) {
+        if (input == null) {
+            return;
+        }
+        int start = 0;
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            String replacement = switch (input.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                sb.append(input, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        sb.append(input, start, length);
+    }
+
+    /**
+     * 組合附件列表 (自定義列表樣式測試) 的固定片段。
+     */
+    private static String buildAppendix() {
+        StringBuilder sb = new StringBuilder(4096);
+
+        // --- 測試自定義列表樣式 ---
+        sb.append("<div style='margin-top: 30px; page-break-inside: avoid;'>");
+        sb.append("<h2>附件一：自定義列表樣式測試 (OpenHTMLtoPDF 相容版)</h2>");
+
+        // 1. 標準中文數字 (一、二、三...)
+        sb.append("<h3>1. 標準中文數字列表 (Class: chinese-safe)</h3>");
+        sb.append("<p style='color: #666; font-size: 0.9em; margin-bottom: 10px;'>此樣式使用 CSS 窮舉法定義，確保在任何 PDF 渲染引擎中都能正確顯示中文編號。</p>");
+        sb.append("<ol class='chinese-safe'>");
+        for (int i = 1; i <= 12; i++) {
+            sb.append("<li>這是第 ").append(i).append(" 點說明事項，測試長度與對齊效果。若文字較長會自動折行，第二行應對齊文字起始處，不會跑版到編號下方。</li>");
+        }
+        sb.append("</ol>");
+
+        // 2. 公文式階層
+        sb.append("<h3 style='margin-top: 20px;'>2. 公文式多層級列表 (Class: official-doc-list)</h3>");
+        sb.append("<p style='color: #666; font-size: 0.9em; margin-bottom: 10px;'>此樣式模擬正式公文結構：一、 -> (一) -> 1. -> (1)</p>");
+        
+        sb.append("<ol class='official-doc-list'>");
+        
+        // 第一層 Item 1
+        sb.append("<li><strong>計畫目標與範疇</strong>");
+        sb.append("<ol>"); // 第二層
+            sb.append("<li>短期目標：完成系統基礎建設。");
+            sb.append("<ol>"); // 第三層
+                sb.append("<li>建立開發環境 (Development Environment)。</li>");
+                sb.append("<li>完成資料庫 Schema 設計與正規化。</li>");
+                sb.append("<li>建立 CI/CD 自動化部署流程。");
+                    sb.append("<ol>"); // 第四層
+                        sb.append("<li>設定 GitHub Actions Workflow。</li>");
+                        sb.append("<li>配置 Docker 容器化環境。</li>");
+                    sb.append("</ol>");
+                sb.append("</li>");
+            sb.append("</ol>");
+            sb.append("</li>");
+            
+            sb.append("<li>中期目標：導入自動化測試與監控。");
+            sb.append("<ol>");
+                sb.append("<li>單元測試覆蓋率達 80% 以上。</li>");
+                sb.append("<li>整合 Prometheus 與 Grafana 監控儀表板。</li>");
+            sb.append("</ol>");
+            sb.append("</li>");
+        sb.append("</ol>");
+        sb.append("</li>");
+
+        // 第一層 Item 2
+        sb.append("<li><strong>執行策略與方法</strong>");
+        sb.append("<ol>");
+            sb.append("<li>採用敏捷開發 (Agile) 模式，每兩週進行一次 Sprint。</li>");
+            sb.append("<li>每週召開進度檢核會議，確認開發狀況與風險。</li>");
+            sb.append("<li>定期進行程式碼審查 (Code Review)，確保品質。</li>");
+        sb.append("</ol>");
+        sb.append("</li>");
+        
+        // 第一層 Item 3
+        sb.append("<li><strong>預期效益</strong>");
+        sb.append("<ol>");
+            sb.append("<li>提升開發效率 30%。</li>");
+            sb.append("<li>降低系統錯誤率，提升使用者滿意度。</li>");
+        sb.append("</ol>");
+        sb.append("</li>");
+
+        sb.append("</ol>"); // End official-doc-list
+        sb.append("</div>");
+
+        return sb.toString();
+    }
+
+    /**
+     * 從資源檔案中載入列表樣式。
+     *
+     * @return 列表樣式 CSS，無法載入時回傳空字串
+     */
+    private static String loadListStyles() {
+        ClassPathResource resource = new ClassPathResource(LIST_STYLES_LOCATION);
+        if (!resource.exists()) {
+            return StringUtils.EMPTY;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("載入列表樣式時發生錯誤", e);
+            return StringUtils.EMPTY;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.springbootlab.service;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Service;
+
+import com.example.springbootlab.config.PdfProperties;
+import com.example.springbootlab.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PDF 產生執行緒池。
+ *
+ * <p>
+ * 以固定數量的專用執行緒與有界佇列產生 PDF，避免大量下載請求佔用 Tomcat 請求執行緒與記憶體：
+ * <ul>
+ * <li>同一份 PDF (相同 {@link PdfCache.Key}) 的並行請求共用同一次產生結果，
+ * 未放入快取的暫時檔案依共用的請求數增加參考 (見 {@link PdfCache.CachedPdf#retain(int)})</li>
+ * <li>佇列額滿時拋出 {@link TooManyRequestsException} (HTTP 429 + Retry-After)</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * 啟用虛擬執行緒模式 ({@code spring.threads.virtual.enabled}) 時仍維持固定數量的平台執行緒：
+ * PDF 產生以 CPU 運算為主，虛擬執行緒沒有好處；openhtmltopdf / PDFBox 內部的 {@code synchronized}
+ * 區塊 (字型快取等) 在虛擬執行緒上會 pin 住載體執行緒；固定大小的執行緒池同時也是產生請求的背壓機制。
+ * </p>
+ *
+ * <p>
+ * 提供以下 Micrometer 指標：
+ * <ul>
+ * <li>{@code holiday.pdf.render} (產生耗時)</li>
+ * <li>{@code holiday.pdf.render.queue} / {@code holiday.pdf.render.active}</li>
+ * <li>{@code holiday.pdf.render.rejected} / {@code holiday.pdf.render.coalesced}</li>
+ * </ul>
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Service
+public class PdfRenderExecutor {
+
+    /** PDF 產生執行緒池 */
+    private final ThreadPoolExecutor executor;
+
+    /** 產生中的 PDF (Key: 快取 Key) */
+    private final Map<PdfCache.Key, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    /** 產生執行緒池配置 */
+    private final PdfProperties.Render properties;
+
+    private final Timer renderTimer;
+
+    private final Counter rejected;
+
+    private final Counter coalesced;
+
+    /**
+     * 建立 PDF 產生執行緒池。
+     *
+     * @param pdfProperties PDF 配置屬性
+     * @param meterRegistry 指標註冊器
+     */
+    public PdfRenderExecutor(PdfProperties pdfProperties, MeterRegistry meterRegistry) {
+        this.properties = pdfProperties.render();
+        int concurrency = Math.max(1, properties.concurrency());
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.queueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-render-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.renderTimer = Timer.builder("holiday.pdf.render")
+                .description("PDF 產生耗時").register(meterRegistry);
+        this.rejected = Counter.builder("holiday.pdf.render.rejected")
+                .description("因佇列額滿而拒絕的 PDF 產生請求").register(meterRegistry);
+        this.coalesced = Counter.builder("holiday.pdf.render.coalesced")
+                .description("與進行中產生合併的 PDF 請求").register(meterRegistry);
+        Gauge.builder("holiday.pdf.render.queue", executor, e -> e.getQueue().size())
+                .description("等待產生的 PDF 數量").register(meterRegistry);
+        Gauge.builder("holiday.pdf.render.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("產生中的 PDF 數量").register(meterRegistry);
+    }
+
+    /**
+     * 提交 PDF 產生工作；相同 Key 已在產生中時直接共用其結果。
+     *
+     * <p>
+     * 每個呼叫端在請求結束後 (不論是否完成輸出) 都需呼叫一次 {@link PdfCache.CachedPdf#release()}。
+     * </p>
+     *
+     * @param key    PDF 快取 Key
+     * @param render 產生 PDF 並寫入快取的工作
+     * @return 產生結果
+     * @throws TooManyRequestsException 當產生佇列已滿時
+     */
+    public CompletableFuture<PdfCache.CachedPdf> submit(PdfCache.Key key, Callable<PdfCache.CachedPdf> render) {
+        InFlight created = new InFlight();
+        InFlight entry = inFlight.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return created;
+            }
+            existing.waiters++;
+            return existing;
+        });
+        if (entry != created) {
+            coalesced.increment();
+            return entry.future;
+        }
+
+        try {
+            executor.execute(() -> complete(key, created, render));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            rejected.increment();
+            log.warn("PDF 產生佇列已滿 (佇列 {} 筆)，拒絕 {} 年度的產生請求。", executor.getQueue().size(), key.year());
+            throw new TooManyRequestsException("PDF 產生忙碌中，請稍後再試", properties.retryAfter());
+        }
+        return created.future;
+    }
+
+    /**
+     * 產生 PDF 並完成所有等待中的請求。
+     *
+     * <p>
+     * 完成前先移除進行中的項目，之後到達的請求不會再共用此結果，共用的請求數即已確定，
+     * 再依請求數增加暫時檔案的參考，避免第一個結束的請求刪除其他請求仍要讀取的檔案。
+     * </p>
+     */
+    private void complete(PdfCache.Key key, InFlight entry, Callable<PdfCache.CachedPdf> render) {
+        PdfCache.CachedPdf pdf = null;
+        Throwable failure = null;
+        try {
+            pdf = renderTimer.recordCallable(render);
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            inFlight.remove(key, entry);
+        }
+        if (failure != null) {
+            entry.future.completeExceptionally(failure);
+            return;
+        }
+        pdf.retain(entry.waiters - 1);
+        entry.future.complete(pdf);
+    }
+
+    /**
+     * 停止接受新工作並等待進行中的產生完成。
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 進行中的產生工作。
+     */
+    private static final class InFlight {
+
+        /** 產生結果 */
+        final CompletableFuture<PdfCache.CachedPdf> future = new CompletableFuture<>();
+
+        /** 共用此結果的請求數 (只在 {@code inFlight.compute} 內修改，移除後才讀取) */
+        int waiters = 1;
+    }
+}
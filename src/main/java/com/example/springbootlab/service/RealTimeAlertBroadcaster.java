@@ -0,0 +1,261 @@
+package com.example.springbootlab.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.example.springbootlab.config.NcdrProperties;
+import com.example.springbootlab.model.ncdr.NcdrAlertIndex;
+import com.example.springbootlab.model.ncdr.NcdrEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 即時停班停課推播 (Server-Sent Events)。
+ *
+ * <p>
+ * 瀏覽器以 {@code EventSource} 訂閱後不再輪詢：伺服器有連線時每隔 {@code ncdr.stream.poll-interval}
+ * 經由 {@link RealTimeHolidayService} 的即時快取取得目前的警報索引 (所有連線共用一次上游查詢)，
+ * 依訂閱條件 (縣市、行政區) 分組與上次推送的內容比對，只對內容有變動的組別推送 {@code alerts} 事件。
+ * 每個組別只序列化一次 JSON，再以虛擬執行緒平行寫入各連線，慢速連線不會拖住其他連線。
+ * </p>
+ *
+ * <p>
+ * {@link SseEmitter} 以 Servlet 非同步模式保持連線，閒置的連線不佔用請求執行緒；
+ * 內容未變動時每隔 {@code ncdr.stream.heartbeat-interval} 送出心跳註解，寫入失敗的連線即自登記表移除。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication
+public class RealTimeAlertBroadcaster {
+
+    /** 警報事件名稱 */
+    public static final String EVENT_NAME = "alerts";
+
+    /** 未指定縣市時的預設訂閱縣市 */
+    private static final String DEFAULT_CITY = "臺北市";
+
+    /** 即時颱風假查詢服務 */
+    private final RealTimeHolidayService realTimeHolidayService;
+
+    /** NCDR 配置 */
+    private final NcdrProperties properties;
+
+    /** 精簡 JSON 序列化器 (SSE 的 data 欄位不可含換行) */
+    private final ObjectWriter compactWriter;
+
+    /** 各訂閱條件的連線 */
+    private final Map<Subscription, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    /** 各訂閱條件最後推送的內容 */
+    private final Map<Subscription, String> lastPayloads = new ConcurrentHashMap<>();
+
+    /**
+     * 登記連線與更新推送內容的鎖 (訂閱與輪詢共用)。
+     *
+     * <p>
+     * 訂閱時的「登記連線並送出目前內容」與輪詢時的「更新內容並取得要推送的連線」互斥，
+     * 新連線不會在輪詢推送新內容後才收到舊內容而停留在過期的狀態。
+     * 使用 {@link ReentrantLock} 而非 {@code synchronized}，推送用的虛擬執行緒等待時不會 pin 住載體執行緒。
+     * </p>
+     */
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    /** 上次送出心跳的時間 (epoch 毫秒) */
+    private volatile long lastHeartbeatMillis = System.currentTimeMillis();
+
+    /**
+     * 建立即時停班停課推播。
+     *
+     * @param realTimeHolidayService 即時颱風假查詢服務
+     * @param properties             NCDR 配置
+     * @param objectMapper           全域 ObjectMapper
+     */
+    public RealTimeAlertBroadcaster(RealTimeHolidayService realTimeHolidayService, NcdrProperties properties,
+            ObjectMapper objectMapper) {
+        this.realTimeHolidayService = realTimeHolidayService;
+        this.properties = properties;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * 訂閱縣市或行政區的停班停課警報，連線後立即送出目前的狀態。
+     *
+     * @param city     縣市名稱 (台/臺皆可，未指定時為臺北市)
+     * @param district 行政區名稱 (未指定時只推送全區警報)
+     * @return SSE 連線
+     */
+    public SseEmitter subscribe(String city, String district) {
+        Subscription subscription = Subscription.of(city, district);
+        SseEmitter emitter = new SseEmitter(properties.stream().timeout().toMillis());
+        emitter.onCompletion(() -> unsubscribe(subscription, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscription, emitter));
+
+        // 新的訂閱條件先查詢目前的警報 (可能等待上游，不持有鎖)
+        String initial = lastPayloads.containsKey(subscription) ? null
+                : serialize(realTimeHolidayService.getRealTimeHolidays(subscription.city(),
+                        subscription.district()));
+        publishLock.lock();
+        try {
+            subscribers.compute(subscription, (key, emitters) -> {
+                Set<SseEmitter> result = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+                result.add(emitter);
+                return result;
+            });
+            // 已有其他連線時以最後推送的內容為準，之後的輪詢只需與其比對
+            String payload = initial != null ? lastPayloads.computeIfAbsent(subscription, key -> initial)
+                    : lastPayloads.get(subscription);
+            if (payload == null) {
+                // 查詢期間其他連線皆已中斷並清除內容
+                payload = serialize(realTimeHolidayService.getRealTimeHolidays(subscription.city(),
+                        subscription.district()));
+                lastPayloads.put(subscription, payload);
+            }
+            // 回傳前的連線尚未開始回應，送出的事件只會暫存，不會因慢速連線而長時間持有鎖
+            send(subscription, emitter, SseEmitter.event().name(EVENT_NAME).data(payload));
+        } finally {
+            publishLock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * 檢查警報是否變動，並推送給內容有變動的訂閱者。
+     *
+     * <p>
+     * 沒有任何連線時不查詢 NCDR。
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${ncdr.stream.poll-interval:30s}")
+    public void poll() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        NcdrAlertIndex index = realTimeHolidayService.getAlertIndex();
+        long now = System.currentTimeMillis();
+        boolean heartbeat = now - lastHeartbeatMillis >= properties.stream().heartbeatInterval().toMillis();
+        if (heartbeat) {
+            lastHeartbeatMillis = now;
+        }
+
+        int changed = 0;
+        int connections = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Subscription subscription : subscribers.keySet()) {
+                String payload = serialize(index.find(subscription.city(), subscription.district()));
+                boolean modified;
+                List<SseEmitter> emitters;
+                publishLock.lock();
+                try {
+                    Set<SseEmitter> group = subscribers.get(subscription);
+                    if (group == null) {
+                        continue;
+                    }
+                    modified = !payload.equals(lastPayloads.put(subscription, payload));
+                    emitters = List.copyOf(group);
+                } finally {
+                    publishLock.unlock();
+                }
+                if (!modified && !heartbeat) {
+                    continue;
+                }
+                changed += modified ? 1 : 0;
+                for (SseEmitter emitter : emitters) {
+                    connections++;
+                    executor.execute(() -> send(subscription, emitter, modified
+                            ? SseEmitter.event().name(EVENT_NAME).data(payload)
+                            : SseEmitter.event().comment("heartbeat")));
+                }
+            }
+        }
+        // 輪詢期間已全部斷線的訂閱條件不保留內容
+        lastPayloads.keySet().retainAll(subscribers.keySet());
+        if (changed > 0) {
+            log.info("已推送即時停班停課變動 ({} 個訂閱條件有變動，寫入 {} 個連線)", changed, connections);
+        }
+    }
+
+    /**
+     * 取得目前的連線數。
+     *
+     * @return 連線數
+     */
+    public int getConnectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * 送出事件，寫入失敗時結束並移除該連線。
+     */
+    private void send(Subscription subscription, SseEmitter emitter, SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE 連線已中斷: {}", e.getMessage());
+            unsubscribe(subscription, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * 自登記表移除連線，訂閱條件已無連線時一併移除最後推送的內容。
+     */
+    private void unsubscribe(Subscription subscription, SseEmitter emitter) {
+        subscribers.computeIfPresent(subscription, (key, emitters) -> {
+            emitters.remove(emitter);
+            if (emitters.isEmpty()) {
+                lastPayloads.remove(key);
+                return null;
+            }
+            return emitters;
+        });
+    }
+
+    /**
+     * 將警報序列化為不含換行的 JSON。
+     */
+    private String serialize(List<NcdrEntry> entries) {
+        try {
+            return compactWriter.writeValueAsString(entries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化停班停課警報失敗", e);
+        }
+    }
+
+    /**
+     * 訂閱條件 (名稱已正規化)。
+     *
+     * @param city     縣市名稱
+     * @param district 行政區名稱 (全區為 null)
+     */
+    private record Subscription(String city, String district) {
+
+        static Subscription of(String city, String district) {
+            String normalizedCity = city == null || city.isBlank() ? DEFAULT_CITY
+                    : NcdrAlertIndex.normalize(city.trim());
+            String normalizedDistrict = district == null || district.isBlank() ? null
+                    : NcdrAlertIndex.normalize(district.trim());
+            return new Subscription(normalizedCity, normalizedDistrict);
+        }
+    }
+}
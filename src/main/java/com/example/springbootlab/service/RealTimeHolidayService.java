@@ -1,16 +1,17 @@
 package com.example.springbootlab.service;
 
-import java.util.Collections;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
+import com.example.springbootlab.model.ncdr.NcdrAlertIndex;
 import com.example.springbootlab.model.ncdr.NcdrEntry;
-import com.example.springbootlab.model.ncdr.NcdrHolidayResponse;
+import com.example.springbootlab.model.ncdr.NcdrFeed;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
@@ -19,86 +20,109 @@ import lombok.extern.slf4j.Slf4j;
  * 即時颱風假查詢服務。
  * 
  * <p>
- * 負責串接國家災害防救科技中心 (NCDR) 的即時警報 API，
- * 查詢特定縣市（目前鎖定台北市/臺北市）的停班停課資訊。
+ * 查詢國家災害防救科技中心 (NCDR) 即時警報中，縣市或行政區的停班停課資訊 (未指定時為台北市全區)。
+ * Feed 由 {@link NcdrFeedService} 抓取與快取 (stale-while-revalidate、single-flight、失敗重試間隔)，
+ * 與 Feed 中繼 API 共用同一次上游查詢；內容變更時於背景抓取執行緒解析一次為 {@link NcdrAlertIndex}
+ * (縣市 → 行政區)，請求只做 Map 查找。
  * </p>
  */
 @Slf4j
 @Service
 public class RealTimeHolidayService {
 
-    private static final String NCDR_API_URL = "https://alerts.ncdr.nat.gov.tw/JSONAtomFeed.ashx?AlertType=33";
-    private static final String TARGET_CITY_1 = "臺北市";
-    private static final String TARGET_CITY_2 = "台北市";
+    /** 未指定縣市時的預設查詢縣市 */
+    private static final String TARGET_CITY = "臺北市";
 
-    private final RestClient restClient;
+    /** NCDR Feed 抓取服務 */
+    private final NcdrFeedService feedService;
 
-    public RealTimeHolidayService(@NonNull ObjectMapper objectMapper) {
-        this.restClient = RestClient.builder()
-                .messageConverters(converters -> converters.add(new MappingJackson2HttpMessageConverter(objectMapper)))
-                .build();
+    /** NCDR Feed 串流讀取器 */
+    private final NcdrFeedReader feedReader;
+
+    /** 由目前 Feed 建立的警報索引 (尚未建立時為 null) */
+    private final AtomicReference<NcdrAlertIndex> index = new AtomicReference<>();
+
+    /**
+     * 建立即時颱風假查詢服務。
+     *
+     * @param objectMapper 全域 ObjectMapper
+     * @param feedService  NCDR Feed 抓取服務
+     */
+    @Autowired
+    public RealTimeHolidayService(@NonNull ObjectMapper objectMapper, @NonNull NcdrFeedService feedService) {
+        this.feedService = feedService;
+        this.feedReader = new NcdrFeedReader(objectMapper.getFactory());
+        feedService.addFeedListener(this::rebuildIndex);
     }
 
     /**
-     * 查詢即時停班停課資訊。
+     * 查詢台北市全區即時停班停課資訊。
      *
-     * @return 符合條件的 NcdrEntry 列表，若無或發生錯誤則回傳空列表。
+     * @return 符合條件的 NcdrEntry 列表，若無或從未成功抓取則回傳空列表。
      */
-    @Cacheable(value = "realTimeHolidays", unless = "#result == null || #result.isEmpty()")
     public List<NcdrEntry> getRealTimeHolidays() {
-        try {
-            NcdrHolidayResponse response = restClient.get()
-                    .uri(NCDR_API_URL)
-                    .retrieve()
-                    .body(NcdrHolidayResponse.class);
-
-            if (response == null || response.getEntry() == null) {
-                return Collections.emptyList();
-            }
+        return getRealTimeHolidays(null, null);
+    }
 
-            return response.getEntry().stream()
-                    .filter(this::isTaipeiCityAllArea)
-                    .toList();
+    /**
+     * 查詢縣市或行政區的即時停班停課資訊。
+     *
+     * @param city     縣市名稱 (台/臺皆可，未指定時為臺北市)
+     * @param district 行政區名稱 (未指定時只回傳全區警報；指定時包含全區警報)
+     * @return 符合條件的 NcdrEntry 列表，若無或從未成功抓取則回傳空列表。
+     */
+    public List<NcdrEntry> getRealTimeHolidays(String city, String district) {
+        return getAlertIndex().find(city == null || city.isBlank() ? TARGET_CITY : city, district);
+    }
 
-        } catch (Exception e) {
-            log.error("查詢 NCDR 即時停班停課 API 失敗: {}", e.getMessage());
-            return Collections.emptyList();
+    /**
+     * 取得目前的警報索引 (快取狀態與上游查詢由 {@link NcdrFeedService} 決定)。
+     *
+     * @return 警報索引，從未成功抓取時回傳空索引
+     */
+    public NcdrAlertIndex getAlertIndex() {
+        NcdrFeed feed = feedService.getFeed();
+        NcdrAlertIndex current = index.get();
+        if (current != null) {
+            return current;
+        }
+        if (feed == null) {
+            return NcdrAlertIndex.EMPTY;
         }
+        // 註冊通知前已抓取的 Feed：建立一次索引 (之後的變更皆由通知於背景建立)
+        index.compareAndSet(null, parse(feed, NcdrAlertIndex.EMPTY));
+        return index.get();
     }
 
     /**
-     * 判斷是否為台北市全區停班停課。
-     * 
+     * Feed 內容變更時建立新的警報索引 (於 {@link NcdrFeedService} 的背景抓取執行緒呼叫)。
+     */
+    private void rebuildIndex(NcdrFeed feed) {
+        NcdrAlertIndex previous = index.get();
+        index.set(parse(feed, previous != null ? previous : NcdrAlertIndex.EMPTY));
+    }
+
+    /**
+     * 解析 Feed 並建立索引。
+     *
      * <p>
-     * 判斷邏輯：
-     * 1. 檢查 summary text 是否包含「臺北市」或「台北市」。
-     * 2. 確保不包含其他更細的行政區名稱（這裡簡化為檢查是否直接接冒號，
-     * 例如 "[停班停課通知]臺北市:" 表示全區）。
+     * 以 {@link NcdrFeedReader} 逐 token 讀取記憶體中的原始內容，只建立能解析出發布地點的警報。
      * </p>
-     * 
-     * @param entry NCDR 資料項目
-     * @return true 若判定為全區停班停課
+     *
+     * @param feed     NCDR Feed
+     * @param fallback 解析失敗時沿用的索引
+     * @return 警報索引
      */
-    private boolean isTaipeiCityAllArea(NcdrEntry entry) {
-        if (entry.getSummary() == null || entry.getSummary().getText() == null) {
-            return false;
-        }
-
-        String text = entry.getSummary().getText();
-
-        // 檢查是否包含目標城市
-        boolean hasCityName = text.contains(TARGET_CITY_1) || text.contains(TARGET_CITY_2);
-        if (!hasCityName) {
-            return false;
+    private NcdrAlertIndex parse(NcdrFeed feed, NcdrAlertIndex fallback) {
+        long start = System.nanoTime();
+        try {
+            NcdrAlertIndex parsed = feedReader.readIndex(new ByteArrayInputStream(feed.body()));
+            log.info("已更新 NCDR 即時停班停課索引 (共 {} 筆警報，{} 個縣市，耗時 {} ms)",
+                    parsed.getEntryCount(), parsed.getCities().size(), (System.nanoTime() - start) / 1_000_000);
+            return parsed;
+        } catch (IOException e) {
+            log.error("解析 NCDR 即時停班停課資料失敗，沿用目前的索引: {}", e.getMessage());
+            return fallback;
         }
-
-        // 全區判斷邏輯：
-        // 根據觀察，NCDR 格式通常為 "[停班停課通知]臺北市:..." (全區)
-        // 或 "[停班停課通知]新北市瑞芳區:..." (特定區)
-        // 因此我們檢查 "臺北市:" 或 "台北市:" 是否存在
-        boolean isAllArea1 = text.contains(TARGET_CITY_1 + ":") || text.contains(TARGET_CITY_1 + "：");
-        boolean isAllArea2 = text.contains(TARGET_CITY_2 + ":") || text.contains(TARGET_CITY_2 + "：");
-
-        return isAllArea1 || isAllArea2;
     }
 }
@@ -0,0 +1,247 @@
+package com.example.springbootlab.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.springbootlab.model.Holiday;
+
+/**
+ * 關聯節日解析器。
+ *
+ * <p>
+ * 針對補假、補行上班、調整放假或名稱空白的日期，從同年度其他節日的說明中找出提及該日期的節日，
+ * 並將節日名稱填入 note 欄位。例如：10/24 補假，10/25 的說明中有「於10月24日補假一日」，
+ * 則 10/24 的 note 為 10/25 的節日名稱。
+ * </p>
+ *
+ * <p>
+ * 每則說明只掃描一次，擷取其中所有「M月D日」(阿拉伯數字、補零、中文數字，數字與「月」「日」之間可有空白)，
+ * 建立「月日 → 提及該日期的節日」索引後再逐一查表，整體為線性時間。
+ * 數字以完整的連續數字解析，「十二月八日」不會被誤判為「二月八日」。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+public final class RelatedHolidayResolver {
+
+    /** 中文數字 → 數值 (1 ~ 31) */
+    private static final Map<String, Integer> CHINESE_NUMBERS = new HashMap<>();
+
+    static {
+        for (int i = 1; i <= 31; i++) {
+            CHINESE_NUMBERS.put(toChineseNum(i), i);
+        }
+    }
+
+    private RelatedHolidayResolver() {
+    }
+
+    /**
+     * 依年份分組後解析所有項目的關聯節日，找到時設定 note (找不到時維持原值)。
+     *
+     * @param holidays 節日列表
+     */
+    public static void resolve(List<Holiday> holidays) {
+        Map<String, List<Holiday>> byYear = new HashMap<>();
+        for (Holiday holiday : holidays) {
+            byYear.computeIfAbsent(holiday.getYear(), key -> new ArrayList<>()).add(holiday);
+        }
+        byYear.values().forEach(RelatedHolidayResolver::resolveYear);
+    }
+
+    /**
+     * 解析同一年度內的關聯節日。
+     *
+     * @param yearList 同一年度的節日列表
+     */
+    public static void resolveYear(List<Holiday> yearList) {
+        // 月日 (month * 100 + day) → 說明中提及該日期的節日 (依列表順序保留前兩筆，用於排除目標本身)
+        Map<Integer, Holiday[]> mentions = new HashMap<>();
+        List<Integer> monthDays = new ArrayList<>();
+        for (Holiday source : yearList) {
+            if (source.getName() == null || source.getName().isEmpty()) {
+                continue;
+            }
+            monthDays.clear();
+            extractMonthDays(source.getDescription(), monthDays);
+            for (Integer monthDay : monthDays) {
+                Holiday[] sources = mentions.computeIfAbsent(monthDay, key -> new Holiday[2]);
+                if (sources[0] == null) {
+                    sources[0] = source;
+                } else if (sources[1] == null && sources[0] != source) {
+                    sources[1] = source;
+                }
+            }
+        }
+        if (mentions.isEmpty()) {
+            return;
+        }
+
+        for (Holiday target : yearList) {
+            if (!isTarget(target)) {
+                continue;
+            }
+            String date = target.getDate();
+            if (date == null || date.length() != 8) {
+                continue;
+            }
+            int monthDay = Integer.parseInt(date.substring(4, 8));
+            Holiday[] sources = mentions.get(monthDay);
+            if (sources == null) {
+                continue;
+            }
+            Holiday source = sources[0] != target ? sources[0] : sources[1];
+            if (source != null) {
+                target.setNote(source.getName());
+            }
+        }
+    }
+
+    /**
+     * 擷取文字中所有「M月D日」日期。
+     *
+     * @param text      文字 (可為 null)
+     * @param monthDays 輸出的日期 ({@code month * 100 + day})，依出現順序加入
+     */
+    public static void extractMonthDays(String text, List<Integer> monthDays) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        for (int i = text.indexOf('月'); i >= 0; i = text.indexOf('月', i + 1)) {
+            // 「月」之前的數字
+            int end = skipSpaceBackward(text, i - 1);
+            int start = numberStart(text, end);
+            int month = parseNumber(text, start, end + 1);
+            if (month < 1 || month > 12) {
+                continue;
+            }
+
+            // 「月」之後的數字與「日」
+            int dayStart = skipSpaceForward(text, i + 1);
+            int dayEnd = numberEnd(text, dayStart);
+            int day = parseNumber(text, dayStart, dayEnd);
+            int suffix = skipSpaceForward(text, dayEnd);
+            if (day < 1 || day > 31 || suffix >= length || text.charAt(suffix) != '日') {
+                continue;
+            }
+            monthDays.add(month * 100 + day);
+        }
+    }
+
+    /**
+     * 判斷是否需要追蹤關聯節日：補假、補行上班、調整放假或名稱空白。
+     */
+    private static boolean isTarget(Holiday holiday) {
+        String category = holiday.getHolidayCategory();
+        if (category != null
+                && (category.contains("補假") || category.contains("補行上班") || category.contains("調整放假"))) {
+            return true;
+        }
+        return holiday.getName() == null || holiday.getName().trim().isEmpty();
+    }
+
+    /**
+     * 解析數字片段 (阿拉伯數字或中文數字)。
+     *
+     * @return 數值，無法解析時回傳 -1
+     */
+    private static int parseNumber(String text, int start, int end) {
+        if (start >= end) {
+            return -1;
+        }
+        if (Character.digit(text.charAt(start), 10) >= 0) {
+            if (end - start > 2) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = Character.digit(text.charAt(i), 10);
+                if (digit < 0) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+        Integer value = CHINESE_NUMBERS.get(text.substring(start, end));
+        return value != null ? value : -1;
+    }
+
+    /**
+     * 由 {@code end} (含) 往前找出同類數字字元 (阿拉伯數字或中文數字) 的起點。
+     */
+    private static int numberStart(String text, int end) {
+        if (end < 0) {
+            return 0;
+        }
+        boolean arabic = Character.digit(text.charAt(end), 10) >= 0;
+        int start = end + 1;
+        while (start > 0 && isNumberChar(text.charAt(start - 1), arabic)) {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * 由 {@code start} 往後找出同類數字字元的結尾 (不含)。
+     */
+    private static int numberEnd(String text, int start) {
+        if (start >= text.length()) {
+            return start;
+        }
+        boolean arabic = Character.digit(text.charAt(start), 10) >= 0;
+        int end = start;
+        while (end < text.length() && isNumberChar(text.charAt(end), arabic)) {
+            end++;
+        }
+        return end;
+    }
+
+    private static boolean isNumberChar(char c, boolean arabic) {
+        if (arabic) {
+            return Character.digit(c, 10) >= 0;
+        }
+        return switch (c) {
+            case '一', '二', '三', '四', '五', '六', '七', '八', '九', '十' -> true;
+            default -> false;
+        };
+    }
+
+    private static int skipSpaceBackward(String text, int index) {
+        while (index >= 0 && Character.isWhitespace(text.charAt(index))) {
+            index--;
+        }
+        return index;
+    }
+
+    private static int skipSpaceForward(String text, int index) {
+        while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * 將數字轉換為中文數字 (僅支援日期用途，1-31)。
+     *
+     * @param num 數字
+     * @return 中文數字字串
+     */
+    static String toChineseNum(int num) {
+        final String[] chinese = { "", "一", "二", "三", "四", "五", "六", "七", "八", "九", "十" };
+        if (num <= 10) {
+            return chinese[num];
+        } else if (num < 20) {
+            return "十" + (num % 10 == 0 ? "" : chinese[num % 10]);
+        } else if (num < 30) {
+            return "二十" + (num % 10 == 0 ? "" : chinese[num % 10]);
+        } else if (num < 40) {
+            return "三十" + (num % 10 == 0 ? "" : chinese[num % 10]);
+        }
+        return String.valueOf(num);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.springbootlab.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 虛擬執行緒 pinning 監看器 (僅於 {@code spring.threads.virtual.enabled=true} 時啟用)。
+ *
+ * <p>
+ * 虛擬執行緒在 {@code synchronized} 區塊或原生方法內阻塞時無法自載體執行緒卸載 (pinned)，
+ * 該期間會佔住載體執行緒 (數量約等於 CPU 核心數)，大量發生時吞吐量反而低於平台執行緒池。
+ * 此監看器以 JFR {@link RecordingStream} 訂閱 {@code jdk.VirtualThreadPinned} 事件
+ * (阻塞超過 {@link #THRESHOLD} 才記錄)：
+ * <ul>
+ * <li>每種呼叫堆疊第一次發生時以 WARN 記錄堆疊，之後只記錄 DEBUG</li>
+ * <li>{@code holiday.virtualthread.pinned} (pinned 次數與時間)</li>
+ * </ul>
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    /** JFR 事件名稱 */
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /** 記錄門檻 (與 JDK 預設設定相同) */
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+
+    /** 虛擬執行緒實作類別 (非公開類別) */
+    private static final String VIRTUAL_THREAD_CLASS = "java.lang.VirtualThread";
+
+    /** 日誌中顯示的堆疊深度 */
+    private static final int STACK_DEPTH = 12;
+
+    /** 以 WARN 記錄過的堆疊數量上限 */
+    private static final int MAX_REPORTED_STACKS = 256;
+
+    private final Timer pinnedTimer;
+
+    /** 已以 WARN 記錄過的堆疊 */
+    private final Set<String> reportedStacks = ConcurrentHashMap.newKeySet();
+
+    /** JFR 事件串流 (未啟動時為 null) */
+    private volatile RecordingStream recordingStream;
+
+    /**
+     * 建立虛擬執行緒 pinning 監看器。
+     *
+     * @param meterRegistry 指標註冊器
+     */
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedTimer = Timer.builder("holiday.virtualthread.pinned")
+                .description("虛擬執行緒 pinned 於載體執行緒的時間").register(meterRegistry);
+    }
+
+    /**
+     * 應用程式就緒後開始監看。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(THRESHOLD).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            recordingStream = stream;
+            log.info("開始監看虛擬執行緒 pinning (門檻 {} ms)", THRESHOLD.toMillis());
+        } catch (RuntimeException e) {
+            // 不支援 JFR 的執行環境不影響服務
+            log.warn("無法啟動 JFR 事件串流，不監看虛擬執行緒 pinning: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 停止監看。
+     */
+    @PreDestroy
+    public void stop() {
+        RecordingStream stream = recordingStream;
+        recordingStream = null;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    /**
+     * 處理 pinned 事件。
+     */
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        String stack = formatStack(event.getStackTrace());
+        if (reportedStacks.size() < MAX_REPORTED_STACKS && reportedStacks.add(stack)) {
+            log.warn("虛擬執行緒 pinned {} ms (synchronized 或原生方法內阻塞):\n{}",
+                    event.getDuration().toMillis(), stack);
+        } else {
+            log.debug("虛擬執行緒 pinned {} ms", event.getDuration().toMillis());
+        }
+    }
+
+    private static String formatStack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(無堆疊資訊)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                // 略過虛擬執行緒 park 的內部堆疊，從實際阻塞的呼叫開始顯示
+                .dropWhile(frame -> frame.getMethod().getType().getName().equals(VIRTUAL_THREAD_CLASS))
+                .limit(STACK_DEPTH)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "."
+                        + frame.getMethod().getName() + " (line " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.springbootlab.service;
+
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Service;
+
+import com.example.springbootlab.exception.ResourceNotFoundException;
+import com.example.springbootlab.model.calendar.HolidayCalendarIndex;
+import com.example.springbootlab.model.calendar.YearCalendar;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 上班日推算服務。
+ *
+ * <p>
+ * 提供「基準日 + N 個上班日」等推算功能，用於訂單承諾日、SLA 到期日等情境。
+ * 推算方式為：先以前綴和 (rank) 取得基準日的全域上班日序號，
+ * 加減 N 後再以 select 直接定位目標日期，計算成本與 N 無關，不需逐日掃描。
+ * </p>
+ *
+ * @author Spring Boot Lab
+ * @since 1.0.0
+ */
+@RequiredArgsConstructor
+@Service
+public class WorkingDayCalculator {
+
+    /** 假日日曆索引服務 */
+    private final HolidayCalendarService holidayCalendarService;
+
+    /**
+     * 推算基準日加上 N 個上班日後的日期。
+     *
+     * <ul>
+     * <li>{@code days > 0}: 基準日之後 (不含基準日) 的第 N 個上班日</li>
+     * <li>{@code days < 0}: 基準日之前 (不含基準日) 的第 |N| 個上班日</li>
+     * <li>{@code days == 0}: 基準日為上班日時回傳基準日，否則回傳下一個上班日</li>
+     * </ul>
+     *
+     * @param date 基準日
+     * @param days 上班日數 (可為負數)
+     * @return 推算結果日期
+     * @throws ResourceNotFoundException 當基準日或推算結果超出假日資料範圍時
+     */
+    public LocalDate addWorkingDays(LocalDate date, int days) {
+        // 整個推算只讀取同一份索引快照，期間熱載入不會混用新舊年度資料
+        HolidayCalendarIndex index = holidayCalendarService.getIndex();
+        int epochDay = (int) date.toEpochDay();
+        YearCalendar calendar = index.getYear(date.getYear());
+        if (calendar == null) {
+            throw new ResourceNotFoundException("找不到 " + date.getYear() + " 年度的假日資料");
+        }
+
+        long before = index.workingDaysBefore(epochDay);
+        long target;
+        if (days > 0) {
+            target = before + (calendar.isWorkingDay(epochDay) ? 1 : 0) + days - 1;
+        } else if (days < 0) {
+            target = before + days;
+        } else {
+            target = before;
+        }
+
+        if (target < 0 || target >= index.getTotalWorkingDays()) {
+            throw new ResourceNotFoundException("推算結果超出假日資料範圍");
+        }
+        int result = index.selectWorkingDay(target);
+        int resultYear = index.forEpochDay(result).getYear();
+        if (!index.covers(Math.min(date.getYear(), resultYear), Math.max(date.getYear(), resultYear))) {
+            throw new ResourceNotFoundException("推算區間內缺少完整的假日資料");
+        }
+        return LocalDate.ofEpochDay(result);
+    }
+
+    /**
+     * 推算基準日減去 N 個上班日後的日期。
+     *
+     * @param date 基準日
+     * @param days 上班日數
+     * @return 推算結果日期
+     * @throws ResourceNotFoundException 當基準日或推算結果超出假日資料範圍時
+     */
+    public LocalDate subtractWorkingDays(LocalDate date, int days) {
+        return addWorkingDays(date, -days);
+    }
+
+    /**
+     * 取得基準日之後 (不含基準日) 的下一個上班日。
+     *
+     * @param date 基準日
+     * @return 下一個上班日
+     * @throws ResourceNotFoundException 當基準日或推算結果超出假日資料範圍時
+     */
+    public LocalDate nextWorkingDay(LocalDate date) {
+        return addWorkingDays(date, 1);
+    }
+
+    /**
+     * 取得基準日之前 (不含基準日) 的上一個上班日。
+     *
+     * @param date 基準日
+     * @return 上一個上班日
+     * @throws ResourceNotFoundException 當基準日或推算結果超出假日資料範圍時
+     */
+    public LocalDate previousWorkingDay(LocalDate date) {
+        return addWorkingDays(date, -1);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.springbootlab;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.springbootlab.service.FetchDataService;
+import com.example.springbootlab.service.HolidayCalendarService;
+import com.example.springbootlab.service.HolidayJsonCache;
+import com.example.springbootlab.service.PdfCache;
+
+/**
+ * Task Mode ({@code task} Profile) 只建立任務用到的元件。
+ */
+class TaskModeContextTest {
+
+    private static final Path DATA_DIR = Path.of("src/main/resources/static/opendata/holiday");
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void testProcessDoesNotCreateServerBeans() throws Exception {
+        // 2025 年度的 note 被清空，處理後會改寫 (發布變更事件的情境)
+        Path changed = outputDir.resolve("2025.json");
+        Files.writeString(changed, Files.readString(DATA_DIR.resolve("2025.json"), StandardCharsets.UTF_8)
+                .replace("\"note\" : \"端午節\"", "\"note\" : null"), StandardCharsets.UTF_8);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootLabApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("task")
+                .run("--job=process", "--opendata.holiday.output-dir=" + outputDir,
+                        "--opendata.holiday.lock-file=", "--opendata.holiday.state-file=")) {
+            assertArrayEquals(Files.readAllBytes(DATA_DIR.resolve("2025.json")), Files.readAllBytes(changed));
+
+            ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+            assertTrue(isCreated(beanFactory, FetchDataService.class));
+            assertFalse(isCreated(beanFactory, HolidayCalendarService.class));
+            assertFalse(isCreated(beanFactory, HolidayJsonCache.class));
+            assertFalse(isCreated(beanFactory, PdfCache.class));
+        }
+    }
+
+    /**
+     * 指定型別的 Bean 是否已建立 (延遲初始化的 Bean 只有定義，未建立實例)。
+     */
+    private static boolean isCreated(ConfigurableListableBeanFactory beanFactory, Class<?> type) {
+        for (String name : beanFactory.getBeanNamesForType(type, true, false)) {
+            if (beanFactory.containsSingleton(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.springbootlab.benchmark;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 簡易 HTTP 負載測試 (比較平台執行緒池與虛擬執行緒模式用)。
+ *
+ * <p>
+ * 以固定數量的並行用戶端 (各自為一個虛擬執行緒) 對單一 URL 持續送出 GET 請求：
+ * 先暖機再量測，輸出每秒請求數、延遲百分位數與錯誤數。
+ * 受測的應用程式需另外啟動，例如:
+ * </p>
+ *
+ * <pre>
+ * java -jar target/spring-boot-lab-0.0.1-SNAPSHOT.jar --spring.threads.virtual.enabled=true
+ * mvn -Ploadtest test "-Dloadtest.args=http://localhost:8080/api/holidays/2025 200 20"
+ * </pre>
+ *
+ * <p>
+ * 參數依序為: URL、並行用戶端數 (預設 100)、量測秒數 (預設 20)、暖機秒數 (預設 5)。
+ * </p>
+ */
+public final class HttpLoadTest {
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("用法: HttpLoadTest <url> [並行用戶端數] [量測秒數] [暖機秒數]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 20);
+        Duration warmup = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 5);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+
+        System.out.printf("暖機 %d 秒 (%d 個並行用戶端) ...%n", warmup.toSeconds(), concurrency);
+        run(client, request, concurrency, warmup);
+        System.out.printf("量測 %d 秒 ...%n", duration.toSeconds());
+        Result result = run(client, request, concurrency, duration);
+
+        long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        System.out.printf("URL: %s%n", uri);
+        System.out.printf("請求數: %d (錯誤 %d)，吞吐量: %.1f req/s%n", latencies.length, result.errors(),
+                latencies.length / (double) duration.toSeconds());
+        System.out.printf("延遲 (ms): p50 %.2f / p90 %.2f / p99 %.2f / max %.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    /**
+     * 以指定並行數持續送出請求，直到時間結束。
+     */
+    private static Result run(HttpClient client, HttpRequest request, int concurrency, Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        long[][] samples = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int slot = i;
+                executor.execute(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<InputStream> response = client.send(request,
+                                    HttpResponse.BodyHandlers.ofInputStream());
+                            try (InputStream body = response.body()) {
+                                body.transferTo(OutputStream.nullOutputStream());
+                            }
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    samples[slot] = latencies;
+                    counts[slot] = count;
+                });
+            }
+        }
+        // executor 關閉時已等待所有用戶端結束
+        long[] latencies = new long[Arrays.stream(counts).sum()];
+        int offset = 0;
+        for (int i = 0; i < concurrency; i++) {
+            System.arraycopy(samples[i], 0, latencies, offset, counts[i]);
+            offset += counts[i];
+        }
+        return new Result(latencies, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+}
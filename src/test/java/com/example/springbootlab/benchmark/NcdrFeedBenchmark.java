@@ -0,0 +1,106 @@
+package com.example.springbootlab.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.springbootlab.model.ncdr.NcdrAlertIndex;
+import com.example.springbootlab.model.ncdr.NcdrHolidayResponse;
+import com.example.springbootlab.service.NcdrFeedReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * NCDR Feed 解析效能基準測試。
+ *
+ * <p>
+ * 以測試用的 NCDR 範例 feed ({@code ncdr/typhoon-feed.json}) 為樣板，
+ * 複製出颱風期間各縣市、行政區大量發布警報的合成 feed，
+ * 比較 {@link NcdrFeedReader} (逐 token 讀取，只建立符合的警報並直接建立索引) 與
+ * 原本 {@code RestClient.body(NcdrHolidayResponse.class)} 所使用的 {@link ObjectMapper} 反序列化後再建立索引。
+ * 兩者皆由記憶體中的位元組讀取，不含 HTTP 傳輸。
+ * </p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.includes=NcdrFeedBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class NcdrFeedBenchmark {
+
+    private static final String[] CITIES = { "臺北市", "新北市", "桃園市", "臺中市", "臺南市", "高雄市", "基隆市",
+            "新竹市", "嘉義市", "新竹縣", "苗栗縣", "彰化縣", "南投縣", "雲林縣", "嘉義縣", "屏東縣", "宜蘭縣", "花蓮縣",
+            "台東縣", "澎湖縣", "金門縣", "連江縣" };
+
+    /** 合成 feed 的警報筆數 */
+    @Param({ "50", "1000" })
+    private int entries;
+
+    private ObjectMapper objectMapper;
+
+    private NcdrFeedReader reader;
+
+    private byte[] feed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper();
+        reader = new NcdrFeedReader(objectMapper.getFactory());
+
+        ObjectNode root;
+        try (InputStream in = NcdrFeedBenchmark.class.getClassLoader()
+                .getResourceAsStream("ncdr/typhoon-feed.json")) {
+            root = (ObjectNode) objectMapper.readTree(in);
+        }
+        ArrayNode templates = (ArrayNode) root.get("entry");
+        ArrayNode generated = objectMapper.createArrayNode();
+        for (int i = 0; i < entries; i++) {
+            ObjectNode entry = templates.get(i % templates.size()).deepCopy();
+            String place = CITIES[i % CITIES.length] + (i % 3 == 0 ? "" : "第" + (i % 12 + 1) + "區");
+            entry.put("id", "CWA-Typhoon-33-" + i);
+            ((ObjectNode) entry.get("summary")).put("#text",
+                    "[停班停課通知]" + place + ":今天停止上班、停止上課。(發布時間 2025/07/28 06:00)");
+            entry.set("link", objectMapper.createObjectNode()
+                    .put("@rel", "alternate")
+                    .put("@href", "https://alerts.ncdr.nat.gov.tw/Capstorage/DGPA/2025/" + i + ".cap"));
+            generated.add(entry);
+        }
+        root.set("entry", generated);
+        feed = objectMapper.writeValueAsBytes(root);
+
+        JsonNode check = objectMapper.readTree(feed);
+        if (check.get("entry").size() != entries
+                || streaming().getEntryCount() != databindThenIndex().getEntryCount()) {
+            throw new IllegalStateException("合成 feed 解析結果不一致");
+        }
+    }
+
+    @Benchmark
+    public NcdrAlertIndex streaming() throws IOException {
+        return reader.readIndex(new ByteArrayInputStream(feed));
+    }
+
+    @Benchmark
+    public NcdrAlertIndex databindThenIndex() throws IOException {
+        NcdrHolidayResponse response = objectMapper.readValue(new ByteArrayInputStream(feed),
+                NcdrHolidayResponse.class);
+        return NcdrAlertIndex.of(response.getEntry());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.springbootlab.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.unit.DataSize;
+
+import com.example.springbootlab.config.PdfProperties;
+import com.example.springbootlab.model.Holiday;
+import com.example.springbootlab.service.PdfFontRegistry;
+import com.example.springbootlab.service.PdfService;
+import com.openhtmltopdf.pdfboxout.PDFontSupplier;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+
+/**
+ * PDF 字型載入效能基準測試。
+ *
+ * <p>
+ * 比較每次產生 PDF 時重新讀取並解析字型 (原做法) 與使用 {@link PdfFontRegistry} 共用已解析字型的差異。
+ * 預設使用 PDFBox 內附的 LiberationSans；可透過 {@code -Djmh.args="-p fontLocation=file:/path/NotoSansCJKtc-Regular.ttf"}
+ * 改用實際部署的 CJK 字型。建議搭配 {@code -prof gc} 觀察每次產生的配置量。
+ * </p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.includes=PdfFontBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class PdfFontBenchmark {
+
+    private static final String FAMILY = "Noto Sans CJK TC";
+
+    /** 字型檔位置 */
+    @Param({ "classpath:org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf" })
+    private String fontLocation;
+
+    private byte[] fontBytes;
+
+    private PdfFontRegistry fontRegistry;
+
+    private PdfService pdfService;
+
+    private List<Holiday> holidays;
+
+    private String html;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        PdfProperties properties = new PdfProperties(new PdfProperties.Cache(DataSize.ofMegabytes(1), 1, null),
+                new PdfProperties.Font(fontLocation, FAMILY, 1), null);
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+        try (InputStream in = resourceLoader.getResource(fontLocation).getInputStream()) {
+            fontBytes = in.readAllBytes();
+        }
+        fontRegistry = new PdfFontRegistry(properties, resourceLoader);
+        pdfService = new PdfService(fontRegistry);
+        holidays = List.of(
+                Holiday.builder().date("20250101").name("New Year").isHoliday(true).holidayCategory("Holiday")
+                        .description("New Year's Day").build(),
+                Holiday.builder().date("20250208").name("Makeup Workday").isHoliday(false)
+                        .holidayCategory("Workday").description("Makeup workday").build());
+        html = "<html><head><style>body { font-family: '" + FAMILY + "'; }</style></head>"
+                + "<body><h1>2025 Holiday Calendar</h1><p>New Year's Day</p></body></html>";
+    }
+
+    /**
+     * 原做法：每次產生 PDF 都交給 openhtmltopdf 一個新的字型 InputStream 重新解析。
+     */
+    @Benchmark
+    public byte[] parsePerRender() throws Exception {
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            builder.useFont(() -> new ByteArrayInputStream(fontBytes), FAMILY);
+            builder.withHtmlContent(html, null);
+            builder.toStream(os);
+            builder.run();
+            return os.toByteArray();
+        }
+    }
+
+    /**
+     * 新做法：借用 {@link PdfFontRegistry} 已解析的字型，僅嵌入子集 (與 {@link PdfService} 相同流程)。
+     */
+    @Benchmark
+    public byte[] pooledFont() throws Exception {
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream();
+                PDDocument document = new PDDocument();
+                PdfFontRegistry.FontLease lease = fontRegistry.acquire()) {
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            builder.usePDDocument(document);
+            builder.useFont(new PDFontSupplier(PDType0Font.load(document, lease.font(), true)), FAMILY);
+            builder.withHtmlContent(html, null);
+            builder.toStream(os);
+            builder.run();
+            return os.toByteArray();
+        }
+    }
+
+    /**
+     * 以共用字型產生完整的年度假日 PDF (參考值)。
+     */
+    @Benchmark
+    public byte[] holidayPdf() throws Exception {
+        return pdfService.generateHolidayPdf("2025", holidays);
+    }
+}
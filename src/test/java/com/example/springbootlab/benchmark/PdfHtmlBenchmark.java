@@ -0,0 +1,61 @@
+package com.example.springbootlab.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.springbootlab.model.Holiday;
+import com.example.springbootlab.service.PdfHtmlTemplate;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * PDF HTML 產生效能基準測試。
+ *
+ * <p>
+ * 量測 {@link PdfHtmlTemplate} 產生單一年度 HTML 的耗時，建議搭配 {@code -prof gc} 觀察每次產生的配置量。
+ * </p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.includes=PdfHtmlBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class PdfHtmlBenchmark {
+
+    private static final String DATA_DIR = "src/main/resources/static/opendata/holiday";
+
+    @Param({ "2015", "2025" })
+    private String year;
+
+    private PdfHtmlTemplate template;
+
+    private List<Holiday> holidays;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        template = PdfHtmlTemplate.load();
+        holidays = new ObjectMapper().readValue(new File(DATA_DIR, year + ".json"),
+                new TypeReference<List<Holiday>>() {
+                });
+    }
+
+    @Benchmark
+    public String template() {
+        return template.render(year, holidays);
+    }
+}
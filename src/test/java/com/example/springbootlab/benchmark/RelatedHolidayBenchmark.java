@@ -0,0 +1,136 @@
+package com.example.springbootlab.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.springbootlab.model.Holiday;
+import com.example.springbootlab.service.RelatedHolidayResolver;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 關聯節日解析效能基準測試。
+ *
+ * <p>
+ * 以現有年度資料重複平移年份組成多個年代的合成資料集，
+ * 比較 {@link RelatedHolidayResolver} (每則說明解析一次再查表) 與舊版逐筆組合正規表示式、
+ * 掃描同年度所有說明的做法。
+ * </p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.includes=RelatedHolidayBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class RelatedHolidayBenchmark {
+
+    private static final String DATA_DIR = "src/main/resources/static/opendata/holiday";
+
+    /** 合成資料集涵蓋的年數 */
+    @Param({ "14", "70" })
+    private int years;
+
+    private List<Holiday> holidays;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<List<Holiday>> templates = new ArrayList<>();
+        for (int year = 2013; year <= 2026; year++) {
+            templates.add(objectMapper.readValue(new File(DATA_DIR, year + ".json"),
+                    new TypeReference<List<Holiday>>() {
+                    }));
+        }
+
+        holidays = new ArrayList<>();
+        for (int i = 0; i < years; i++) {
+            String year = String.valueOf(1950 + i);
+            for (Holiday holiday : templates.get(i % templates.size())) {
+                holidays.add(Holiday.builder()
+                        .date(year + holiday.getDate().substring(4))
+                        .year(year)
+                        .name(holiday.getName())
+                        .isHoliday(holiday.isHoliday())
+                        .holidayCategory(holiday.getHolidayCategory())
+                        .description(holiday.getDescription())
+                        .build());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Holiday> resolver() {
+        RelatedHolidayResolver.resolve(holidays);
+        return holidays;
+    }
+
+    @Benchmark
+    public List<Holiday> legacyRegex() {
+        Map<String, List<Holiday>> byYear = new HashMap<>();
+        for (Holiday holiday : holidays) {
+            byYear.computeIfAbsent(holiday.getYear(), key -> new ArrayList<>()).add(holiday);
+        }
+        for (List<Holiday> yearList : byYear.values()) {
+            for (Holiday target : yearList) {
+                String category = target.getHolidayCategory();
+                boolean isMakeup = category != null
+                        && (category.contains("補假") || category.contains("補行上班") || category.contains("調整放假"));
+                if (!isMakeup && (target.getName() == null || target.getName().trim().isEmpty())) {
+                    isMakeup = true;
+                }
+                if (!isMakeup || target.getDate() == null || target.getDate().length() != 8) {
+                    continue;
+                }
+                int month = Integer.parseInt(target.getDate().substring(4, 6));
+                int day = Integer.parseInt(target.getDate().substring(6, 8));
+                String regex = String.format("(%s|%s|%s)\\s*月\\s*(%s|%s|%s)\\s*日",
+                        month, String.format("%02d", month), toChineseNum(month),
+                        day, String.format("%02d", day), toChineseNum(day));
+                Pattern pattern = Pattern.compile(regex);
+                for (Holiday source : yearList) {
+                    if (source == target || source.getDescription() == null) {
+                        continue;
+                    }
+                    Matcher matcher = pattern.matcher(source.getDescription());
+                    if (matcher.find() && source.getName() != null && !source.getName().isEmpty()) {
+                        target.setNote(source.getName());
+                        break;
+                    }
+                }
+            }
+        }
+        return holidays;
+    }
+
+    private static String toChineseNum(int num) {
+        final String[] chinese = { "", "一", "二", "三", "四", "五", "六", "七", "八", "九", "十" };
+        if (num <= 10) {
+            return chinese[num];
+        } else if (num < 20) {
+            return "十" + (num % 10 == 0 ? "" : chinese[num % 10]);
+        } else if (num < 30) {
+            return "二十" + (num % 10 == 0 ? "" : chinese[num % 10]);
+        }
+        return "三十" + (num % 10 == 0 ? "" : chinese[num % 10]);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springbootlab.benchmark;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.model.Holiday;
+import com.example.springbootlab.service.HolidayCalendarService;
+import com.example.springbootlab.service.WorkingDayCalculator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 上班日推算效能基準測試。
+ *
+ * <p>
+ * 比較 {@link WorkingDayCalculator} (rank/select) 與逐日掃描 {@code List<Holiday>} 的做法，
+ * 後者即為呼叫端取得整年資料後自行推算的方式。
+ * </p>
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.includes=WorkingDayCalculatorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class WorkingDayCalculatorBenchmark {
+
+    private static final String DATA_DIR = "src/main/resources/static/opendata/holiday";
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /** 推算的上班日數 */
+    @Param({ "5", "60", "250" })
+    private int days;
+
+    private WorkingDayCalculator calculator;
+
+    private Map<Integer, List<Holiday>> holidaysByYear;
+
+    private LocalDate base;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        HolidayCalendarService calendarService = new HolidayCalendarService(objectMapper,
+                new OpendataProperties(new OpendataProperties.Holiday(null, DATA_DIR)));
+        calendarService.getIndex();
+        calculator = new WorkingDayCalculator(calendarService);
+
+        holidaysByYear = new HashMap<>();
+        for (int year : calendarService.getIndex().getYears()) {
+            holidaysByYear.put(year, objectMapper.readValue(new File(DATA_DIR, year + ".json"),
+                    new TypeReference<List<Holiday>>() {
+                    }));
+        }
+        base = LocalDate.of(2024, 1, 24);
+    }
+
+    @Benchmark
+    public LocalDate rankSelect() {
+        return calculator.addWorkingDays(base, days);
+    }
+
+    @Benchmark
+    public LocalDate naiveListLoop() {
+        int remaining = days;
+        LocalDate current = base;
+        while (remaining > 0) {
+            current = current.plusDays(1);
+            if (isWorkingDay(current)) {
+                remaining--;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 逐筆比對年度列表判斷是否為上班日 (未列於資料中視為上班日)。
+     */
+    private boolean isWorkingDay(LocalDate date) {
+        String key = date.format(DATE_FORMAT);
+        for (Holiday holiday : holidaysByYear.get(date.getYear())) {
+            if (key.equals(holiday.getDate())) {
+                return !holiday.isHoliday();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.springbootlab.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+import com.example.springbootlab.config.HttpClientConfig;
+import com.example.springbootlab.config.NcdrProperties;
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.config.PdfProperties;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+import com.example.springbootlab.model.Holiday;
+import com.example.springbootlab.service.HolidayCalendarService;
+import com.example.springbootlab.service.HolidayJsonCache;
+import com.example.springbootlab.service.NcdrFeedService;
+import com.example.springbootlab.service.PdfCache;
+import com.example.springbootlab.service.PdfFontRegistry;
+import com.example.springbootlab.service.PdfRenderExecutor;
+import com.example.springbootlab.service.PdfService;
+import com.example.springbootlab.service.RealTimeHolidayService;
+import com.example.springbootlab.service.WorkingDayCalculator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+class HolidayControllerTest {
+
+    private static final String DATA_DIR = "src/main/resources/static/opendata/holiday";
+
+    private static final PdfProperties PDF_PROPERTIES = new PdfProperties(
+            new PdfProperties.Cache(DataSize.ofMegabytes(16), 32, null),
+            new PdfProperties.Font("classpath:fonts/missing.ttf", "Noto Sans CJK TC", 1),
+            new PdfProperties.Render(1, 1, Duration.ofSeconds(5)));
+
+    private static final NcdrProperties NCDR_PROPERTIES = NcdrProperties.defaults();
+
+    private MockMvc mockMvc;
+
+    private PdfCache pdfCache;
+
+    /** 模擬快取項目於取得後、開啟前被淘汰 */
+    private volatile boolean evictAfterGet;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dataDir;
+
+    @BeforeEach
+    void setUp() {
+        pdfCache = new PdfCache(PDF_PROPERTIES, new SimpleMeterRegistry()) {
+            @Override
+            public synchronized CachedPdf get(Key key) {
+                CachedPdf pdf = super.get(key);
+                if (pdf != null && evictAfterGet) {
+                    invalidateYear(key.year());
+                }
+                return pdf;
+            }
+        };
+        mockMvc = buildMockMvc(calendarService());
+    }
+
+    private MockMvc buildMockMvc(HolidayCalendarService calendarService) {
+        return buildMockMvc(calendarService, new PdfService(fontRegistry()), pdfCache);
+    }
+
+    private MockMvc buildMockMvc(HolidayCalendarService calendarService, PdfService pdfService, PdfCache cache) {
+        HolidayController controller = new HolidayController(calendarService,
+                new HolidayJsonCache(calendarService, objectMapper),
+                new WorkingDayCalculator(calendarService),
+                new RealTimeHolidayService(objectMapper, new NcdrFeedService(NCDR_PROPERTIES,
+                        HttpClientConfig.ncdrRequestFactory(NCDR_PROPERTIES, false), Clock.systemUTC())),
+                pdfService,
+                cache,
+                new PdfRenderExecutor(PDF_PROPERTIES, new SimpleMeterRegistry()));
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    private static PdfFontRegistry fontRegistry() {
+        return new PdfFontRegistry(PDF_PROPERTIES, new DefaultResourceLoader());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pdfCache.close();
+    }
+
+    @Test
+    void testYearNotModifiedByEtag() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/holidays/2025").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/holidays/2025").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // 不同編碼版本的 ETag 不可互相命中
+        mockMvc.perform(get("/api/holidays/2025").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testYearNotModifiedByLastModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/holidays/2025"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        mockMvc.perform(get("/api/holidays/2025")
+                .header(HttpHeaders.IF_MODIFIED_SINCE, first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testRefreshInProgressDoesNotBlockYear() throws Exception {
+        Files.copy(Path.of(DATA_DIR, "2025.json"), dataDir.resolve("2025.json"));
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HolidayCalendarService slowService = new HolidayCalendarService(objectMapper,
+                new OpendataProperties(new OpendataProperties.Holiday(null, dataDir.toString()))) {
+            @Override
+            public synchronized void reloadYear(int year) {
+                reloading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.reloadYear(year);
+            }
+        };
+        MockMvc mvc = buildMockMvc(slowService);
+        String etag = mvc.perform(get("/api/holidays/2025")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 排程抓取改寫檔案後，背景重新載入進行中 (持有 reloadYear 的鎖)
+        Files.setLastModifiedTime(dataDir.resolve("2025.json"),
+                FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        Thread refresh = Thread.ofVirtual()
+                .start(() -> slowService.onHolidayDataChanged(new HolidayDataChangedEvent(2025)));
+        try {
+            assertTrue(reloading.await(5, TimeUnit.SECONDS));
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> mvc.perform(get("/api/holidays/2025"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag)));
+        } finally {
+            release.countDown();
+            refresh.join();
+        }
+    }
+
+    @Test
+    void testPdfNotModifiedSkipsRendering() throws Exception {
+        MvcResult json = mockMvc.perform(get("/api/holidays/2025")).andReturn();
+        String hash = json.getResponse().getHeader(HttpHeaders.ETAG).replace("\"", "");
+
+        mockMvc.perform(get("/api/holidays/2025/pdf")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "-pdf-v" + PdfService.TEMPLATE_VERSION + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testPdfRenderedAsynchronously() throws Exception {
+        MvcResult pending = mockMvc.perform(get("/api/holidays/2025/pdf"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] rendered = downloadPdf(pending);
+        assertEquals("%PDF", new String(rendered, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals("application/pdf", pending.getResponse().getContentType());
+
+        // 第二次請求直接由 PdfCache 的快取檔案輸出
+        MvcResult cached = mockMvc.perform(get("/api/holidays/2025/pdf")).andReturn();
+        assertArrayEquals(rendered, downloadPdf(cached));
+        assertEquals(String.valueOf(rendered.length), cached.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void testEvictedCachedPdfIsRenderedAgain() throws Exception {
+        downloadPdf(mockMvc.perform(get("/api/holidays/2025/pdf")).andReturn());
+        assertEquals(1, pdfCache.size());
+
+        // 快取檔案開啟前已被刪除時重新產生，而非回應 500
+        evictAfterGet = true;
+        byte[] rendered = downloadPdf(mockMvc.perform(get("/api/holidays/2025/pdf")).andReturn());
+        assertEquals("%PDF", new String(rendered, 0, 4, StandardCharsets.US_ASCII));
+        assertEquals(1, pdfCache.size());
+    }
+
+    @Test
+    void testTemporaryPdfDeletedWhenRequestCompletes() throws Exception {
+        Path pdfDir = Files.createDirectories(dataDir.resolve("pdf"));
+        PdfCache uncached = new PdfCache(uncachedProperties(pdfDir), new SimpleMeterRegistry());
+        try {
+            MockMvc mvc = buildMockMvc(calendarService(), new PdfService(fontRegistry()), uncached);
+
+            MvcResult streaming = mvc.perform(asyncDispatch(mvc.perform(get("/api/holidays/2025/pdf")).andReturn()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            streaming.getAsyncResult();
+            byte[] rendered = streaming.getResponse().getContentAsByteArray();
+            assertEquals("%PDF", new String(rendered, 0, 4, StandardCharsets.US_ASCII));
+
+            // 暫時檔案於非同步處理結束 (而非輸出結束) 時才刪除
+            assertEquals(1, fileCount(pdfDir));
+            mvc.perform(asyncDispatch(streaming));
+            assertEquals(0, fileCount(pdfDir));
+        } finally {
+            uncached.close();
+        }
+    }
+
+    @Test
+    void testTimedOutRequestReleasesTemporaryPdf() throws Exception {
+        Path pdfDir = Files.createDirectories(dataDir.resolve("pdf"));
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PdfService slowService = new PdfService(fontRegistry()) {
+            @Override
+            public void writeHolidayPdf(String year, List<Holiday> holidays, OutputStream out) throws IOException {
+                rendering.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.writeHolidayPdf(year, holidays, out);
+            }
+        };
+        PdfCache uncached = new PdfCache(uncachedProperties(pdfDir), new SimpleMeterRegistry());
+        try {
+            MockMvc mvc = buildMockMvc(calendarService(), slowService, uncached);
+            MvcResult pending = mvc.perform(get("/api/holidays/2025/pdf"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+
+            // 產生完成前請求已逾時結束，產生結果不再被採用
+            MockAsyncContext asyncContext = (MockAsyncContext) pending.getRequest().getAsyncContext();
+            for (AsyncListener listener : asyncContext.getListeners()) {
+                listener.onTimeout(new AsyncEvent(asyncContext));
+            }
+            asyncContext.complete();
+            release.countDown();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (fileCount(pdfDir) > 0) {
+                assertTrue(System.nanoTime() < deadline, "暫時檔案未被刪除");
+                Thread.sleep(20);
+            }
+        } finally {
+            uncached.close();
+        }
+    }
+
+    private static PdfProperties uncachedProperties(Path pdfDir) {
+        return new PdfProperties(new PdfProperties.Cache(DataSize.ofMegabytes(16), 0, pdfDir.toString()),
+                PDF_PROPERTIES.font(), PDF_PROPERTIES.render());
+    }
+
+    private HolidayCalendarService calendarService() {
+        return new HolidayCalendarService(objectMapper,
+                new OpendataProperties(new OpendataProperties.Holiday(null, DATA_DIR)));
+    }
+
+    private static long fileCount(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    /**
+     * 等待非同步產生與串流輸出完成，取得回應內容。
+     */
+    private byte[] downloadPdf(MvcResult pending) throws Exception {
+        MvcResult streaming = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        streaming.getAsyncResult();
+        return streaming.getResponse().getContentAsByteArray();
+    }
+}
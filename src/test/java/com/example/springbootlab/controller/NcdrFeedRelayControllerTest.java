@@ -0,0 +1,163 @@
+package com.example.springbootlab.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.springbootlab.config.HttpClientConfig;
+import com.example.springbootlab.config.NcdrProperties;
+import com.example.springbootlab.exception.GlobalExceptionHandler;
+import com.example.springbootlab.service.NcdrFeedService;
+import com.example.springbootlab.service.NcdrFeedStub;
+import com.example.springbootlab.service.RealTimeHolidayService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class NcdrFeedRelayControllerTest {
+
+    private static NcdrFeedService feedService(NcdrFeedStub stub, Duration ttl, Duration maxStale,
+            Duration retryInterval) {
+        NcdrProperties properties = new NcdrProperties(stub.url(), Duration.ofSeconds(5),
+                new NcdrProperties.Realtime(ttl, Duration.ZERO, maxStale, retryInterval),
+                NcdrProperties.defaults().stream());
+        return new NcdrFeedService(properties, HttpClientConfig.ncdrRequestFactory(properties, false),
+                Clock.systemUTC());
+    }
+
+    private static MockMvc relay(NcdrFeedService feedService) {
+        return MockMvcBuilders.standaloneSetup(new NcdrFeedRelayController(feedService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private static MockMvc relay(NcdrFeedStub stub, Duration ttl, Duration retryInterval) {
+        return relay(feedService(stub, ttl, Duration.ZERO, retryInterval));
+    }
+
+    @Test
+    void testServesAllClientsFromMemory() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            MockMvc mockMvc = relay(stub, Duration.ofMinutes(1), Duration.ZERO);
+
+            byte[] body = mockMvc.perform(get("/api/ncdr/feed"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertArrayEquals(NcdrFeedStub.fixture("ncdr/typhoon-feed.json"), body);
+
+            String etag = mockMvc.perform(get("/api/ncdr/feed"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            mockMvc.perform(get("/api/ncdr/feed").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+
+            assertEquals(1, stub.hits(), "TTL 內只向上游抓取一次");
+        }
+    }
+
+    @Test
+    void testRevalidatesWithUpstreamEtag() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            stub.etag("\"v1\"");
+            MockMvc mockMvc = relay(stub, Duration.ZERO, Duration.ZERO);
+
+            String etag = mockMvc.perform(get("/api/ncdr/feed"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            // 上游回應 304：沿用記憶體中的內容，用戶端 ETag 不變
+            byte[] body = mockMvc.perform(get("/api/ncdr/feed"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertArrayEquals(NcdrFeedStub.fixture("ncdr/typhoon-feed.json"), body);
+            assertEquals(2, stub.hits());
+            assertEquals(1, stub.notModifiedHits());
+
+            // 上游內容變更
+            stub.etag("\"v2\"");
+            stub.respond(200, "{\"entry\":[]}");
+            mockMvc.perform(get("/api/ncdr/feed").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(result -> assertEquals("{\"entry\":[]}", result.getResponse().getContentAsString()));
+            assertEquals(1, stub.notModifiedHits());
+        }
+    }
+
+    @Test
+    void testServesLastGoodFeedWhenUpstreamFails() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            MockMvc mockMvc = relay(stub, Duration.ZERO, Duration.ofMinutes(1));
+            mockMvc.perform(get("/api/ncdr/feed")).andExpect(status().isOk());
+
+            stub.respond(503, "unavailable");
+            byte[] body = mockMvc.perform(get("/api/ncdr/feed"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertArrayEquals(NcdrFeedStub.fixture("ncdr/typhoon-feed.json"), body);
+
+            // 重試間隔內不再向上游請求
+            mockMvc.perform(get("/api/ncdr/feed")).andExpect(status().isOk());
+            assertEquals(2, stub.hits());
+        }
+    }
+
+    @Test
+    void testServesStaleFeedWhileRevalidating() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            MockMvc mockMvc = relay(feedService(stub, Duration.ZERO, Duration.ofMinutes(1), Duration.ZERO));
+            mockMvc.perform(get("/api/ncdr/feed")).andExpect(status().isOk());
+
+            // 到期後上游延遲：請求不等待上游，直接回傳最後一次成功的內容
+            CountDownLatch gate = stub.hold();
+            stub.respond(200, "{\"entry\":[]}");
+            try {
+                for (int i = 0; i < 3; i++) {
+                    byte[] body = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> mockMvc
+                            .perform(get("/api/ncdr/feed"))
+                            .andExpect(status().isOk())
+                            .andReturn().getResponse().getContentAsByteArray());
+                    assertArrayEquals(NcdrFeedStub.fixture("ncdr/typhoon-feed.json"), body);
+                }
+                assertEquals(2, stub.hits(), "背景只有一個重新驗證請求");
+            } finally {
+                gate.countDown();
+            }
+        }
+    }
+
+    @Test
+    void testSharesUpstreamFetchWithRealTimeQuery() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            NcdrFeedService feedService = feedService(stub, Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO);
+            RealTimeHolidayService realTimeHolidayService = new RealTimeHolidayService(new ObjectMapper(),
+                    feedService);
+            MockMvc mockMvc = relay(feedService);
+
+            mockMvc.perform(get("/api/ncdr/feed")).andExpect(status().isOk());
+            assertEquals(1, realTimeHolidayService.getRealTimeHolidays().size());
+            assertEquals(1, stub.hits(), "中繼 API 與即時查詢應共用同一次上游查詢");
+        }
+    }
+
+    @Test
+    void testBadGatewayWithoutCachedFeed() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            stub.respond(503, "unavailable");
+            MockMvc mockMvc = relay(stub, Duration.ofMinutes(1), Duration.ZERO);
+
+            mockMvc.perform(get("/api/ncdr/feed")).andExpect(status().isBadGateway());
+        }
+    }
+}
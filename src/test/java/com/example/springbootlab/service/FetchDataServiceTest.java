@@ -0,0 +1,383 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.example.springbootlab.config.JacksonConfig;
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.config.OpendataProperties.DownloadMode;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+import com.example.springbootlab.model.FetchState;
+import com.example.springbootlab.model.Holiday;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+class FetchDataServiceTest {
+
+    private static final String DATA_DIR = "src/main/resources/static/opendata/holiday";
+
+    private static final int[] YEARS = { 2023, 2024, 2025 };
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFetchAndProcessReproducesPublishedJson() throws Exception {
+        Path csvFile = tempDir.resolve("holiday.csv");
+        writeSourceCsv(csvFile);
+
+        assertFetchReproducesPublishedJson(
+                new OpendataProperties.Holiday(csvFile.toUri().toString(), outputDir().toString()));
+    }
+
+    @Test
+    void testTempFileMode() throws Exception {
+        Path csvFile = tempDir.resolve("holiday.csv");
+        writeSourceCsv(csvFile);
+
+        assertFetchReproducesPublishedJson(new OpendataProperties.Holiday(csvFile.toUri().toString(),
+                outputDir().toString(), DownloadMode.TEMP_FILE, null, null, true, null));
+    }
+
+    @Test
+    void testStreamFromHttpWithAuditFile() throws Exception {
+        Path csvFile = tempDir.resolve("holiday.csv");
+        writeSourceCsv(csvFile);
+        byte[] csv = Files.readAllBytes(csvFile);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/holiday.csv", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(csv);
+            }
+        });
+        server.start();
+        try {
+            Path auditFile = tempDir.resolve("audit/holiday.csv");
+            String url = "http://localhost:" + server.getAddress().getPort() + "/holiday.csv";
+            assertFetchReproducesPublishedJson(new OpendataProperties.Holiday(url, outputDir().toString(),
+                    DownloadMode.STREAM, auditFile.toString(), null, true, null));
+
+            assertArrayEquals(csv, Files.readAllBytes(auditFile), "稽核檔應保存完整的原始 CSV");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testConditionalAndIncrementalFetch() throws Exception {
+        Path csvFile = tempDir.resolve("holiday.csv");
+        writeSourceCsv(csvFile, null);
+        AtomicReference<byte[]> content = new AtomicReference<>(Files.readAllBytes(csvFile));
+        AtomicReference<String> etag = new AtomicReference<>("\"v1\"");
+        AtomicInteger notModified = new AtomicInteger();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/holiday.csv", exchange -> {
+            exchange.getResponseHeaders().set("ETag", etag.get());
+            if (etag.get().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(content.get());
+            }
+        });
+        server.start();
+        try {
+            String url = "http://localhost:" + server.getAddress().getPort() + "/holiday.csv";
+            Path stateFile = tempDir.resolve("state/fetch-state.json");
+            OpendataProperties.Holiday properties = new OpendataProperties.Holiday(url, outputDir().toString(),
+                    DownloadMode.STREAM, null, stateFile.toString(), true, null);
+            List<Object> events = new ArrayList<>();
+            FetchDataService service = new FetchDataService(objectMapper, new OpendataProperties(properties),
+                    events::add);
+
+            // 第一次：完整抓取並保存狀態
+            service.fetchAndProcess();
+            assertEquals(3, events.size());
+            FetchState state = objectMapper.readValue(stateFile.toFile(), FetchState.class);
+            assertEquals("\"v1\"", state.getEtag());
+            assertEquals(3, state.getYearHashes().size());
+
+            // 第二次：來源未變更，回應 304，不改寫任何檔案
+            events.clear();
+            service.fetchAndProcess();
+            assertEquals(1, notModified.get());
+            assertTrue(events.isEmpty());
+
+            // 第三次：僅 2025 年度內容變動，其他年度保留原檔案
+            FileTime untouched = FileTime.fromMillis(1_000_000L);
+            for (int year : YEARS) {
+                Files.setLastModifiedTime(outputDir().resolve(year + ".json"), untouched);
+            }
+            writeSourceCsv(csvFile, "20251225");
+            content.set(Files.readAllBytes(csvFile));
+            etag.set("\"v2\"");
+            service.fetchAndProcess();
+
+            assertEquals(List.of(new HolidayDataChangedEvent(2025)), events);
+            assertEquals(untouched, Files.getLastModifiedTime(outputDir().resolve("2023.json")));
+            assertEquals(untouched, Files.getLastModifiedTime(outputDir().resolve("2024.json")));
+            assertNotEquals(untouched, Files.getLastModifiedTime(outputDir().resolve("2025.json")));
+            assertTrue(Files.readString(outputDir().resolve("2025.json"), StandardCharsets.UTF_8).contains("（測試）"));
+            assertEquals("\"v2\"", objectMapper.readValue(stateFile.toFile(), FetchState.class).getEtag());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testDeletedOutputIsRegeneratedDespiteNotModified() throws Exception {
+        Path csvFile = tempDir.resolve("holiday.csv");
+        writeSourceCsv(csvFile);
+        byte[] csv = Files.readAllBytes(csvFile);
+        AtomicInteger notModified = new AtomicInteger();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/holiday.csv", exchange -> {
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if (exchange.getRequestHeaders().containsKey("If-None-Match")) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(csv);
+            }
+        });
+        server.start();
+        try {
+            String url = "http://localhost:" + server.getAddress().getPort() + "/holiday.csv";
+            Path stateFile = tempDir.resolve("state/fetch-state.json");
+            List<Object> events = new ArrayList<>();
+            FetchDataService service = new FetchDataService(objectMapper, new OpendataProperties(
+                    new OpendataProperties.Holiday(url, outputDir().toString(), DownloadMode.STREAM, null,
+                            stateFile.toString(), true, null)),
+                    events::add);
+            service.fetchAndProcess();
+
+            // 年度檔案被刪除：不送出條件式請求，重新產生該年度
+            Files.delete(outputDir().resolve("2024.json"));
+            events.clear();
+            service.fetchAndProcess();
+            assertEquals(0, notModified.get());
+            assertTrue(Files.exists(outputDir().resolve("2024.json")));
+            assertEquals(List.of(new HolidayDataChangedEvent(2024)), events);
+
+            // 輸出目錄變更：不送出條件式請求，於新目錄產生所有年度
+            Path newOutputDir = tempDir.resolve("out2");
+            new FetchDataService(objectMapper, new OpendataProperties(
+                    new OpendataProperties.Holiday(url, newOutputDir.toString(), DownloadMode.STREAM, null,
+                            stateFile.toString(), true, null)),
+                    event -> {
+                    }).fetchAndProcess();
+            assertEquals(0, notModified.get());
+            for (int year : YEARS) {
+                assertTrue(Files.exists(newOutputDir.resolve(year + ".json")));
+            }
+
+            // 輸出完整時才以 304 略過
+            service.fetchAndProcess();
+            service.fetchAndProcess();
+            assertEquals(1, notModified.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    void testProcessExistingFiles(boolean parallel) throws Exception {
+        Path outputDir = outputDir();
+        Files.createDirectories(outputDir);
+        FileTime untouched = FileTime.fromMillis(1_000_000L);
+        for (int year : YEARS) {
+            Path file = outputDir.resolve(year + ".json");
+            Files.copy(Path.of(DATA_DIR, year + ".json"), file);
+            Files.setLastModifiedTime(file, untouched);
+        }
+        // 2025 年度的 note 被清空，重新處理後應補回
+        Path changed = outputDir.resolve("2025.json");
+        Files.writeString(changed, Files.readString(changed, StandardCharsets.UTF_8)
+                .replace("\"note\" : \"端午節\"", "\"note\" : null"), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(changed, untouched);
+        // 無法解析的檔案不影響其他年度
+        Files.writeString(outputDir.resolve("2022.json"), "[ {", StandardCharsets.UTF_8);
+
+        List<Object> events = new ArrayList<>();
+        List<Thread> publishers = new ArrayList<>();
+        FetchDataService service = new FetchDataService(objectMapper,
+                new OpendataProperties(new OpendataProperties.Holiday(null, outputDir.toString(),
+                        DownloadMode.STREAM, null, null, parallel, null)),
+                event -> {
+                    events.add(event);
+                    publishers.add(Thread.currentThread());
+                });
+        service.processExistingFiles();
+
+        assertEquals(List.of(new HolidayDataChangedEvent(2025)), events);
+        // 變更事件於呼叫端執行緒發布，監聽者的重新載入不在平行處理的虛擬執行緒上執行
+        assertEquals(List.of(Thread.currentThread()), publishers);
+        assertEquals(untouched, Files.getLastModifiedTime(outputDir.resolve("2023.json")));
+        assertEquals(untouched, Files.getLastModifiedTime(outputDir.resolve("2024.json")));
+        assertArrayEquals(Files.readAllBytes(Path.of(DATA_DIR, "2025.json")), Files.readAllBytes(changed));
+        assertEquals("[ \"2025\", \"2024\", \"2023\", \"2022\" ]\n",
+                Files.readString(outputDir.resolve("years.json"), StandardCharsets.UTF_8));
+        try (var files = Files.list(outputDir)) {
+            assertEquals(5, files.count(), "不應留下暫存檔");
+        }
+    }
+
+    @Test
+    void testPublishedFilePermissions() throws Exception {
+        Path outputDir = outputDir();
+        Files.createDirectories(outputDir);
+        assumeTrue(Files.getFileStore(outputDir).supportsFileAttributeView(PosixFileAttributeView.class),
+                "僅適用於 POSIX 檔案系統");
+        Path reference = Files.createFile(outputDir.resolve("reference.txt"));
+        assumeTrue(Files.getPosixFilePermissions(reference).contains(PosixFilePermission.OTHERS_READ),
+                "umask 不允許其他使用者讀取");
+        Files.delete(reference);
+
+        // 既有檔案保留原權限，新檔案 (years.json) 為 rw-r--r--
+        Path changed = outputDir.resolve("2025.json");
+        Files.writeString(changed, Files.readString(Path.of(DATA_DIR, "2025.json"), StandardCharsets.UTF_8)
+                .replace("\"note\" : \"端午節\"", "\"note\" : null"), StandardCharsets.UTF_8);
+        Files.setPosixFilePermissions(changed, PosixFilePermissions.fromString("rw-rw-r--"));
+
+        FetchDataService service = new FetchDataService(objectMapper,
+                new OpendataProperties(new OpendataProperties.Holiday(null, outputDir.toString())), event -> {
+                });
+        service.processExistingFiles();
+
+        assertArrayEquals(Files.readAllBytes(Path.of(DATA_DIR, "2025.json")), Files.readAllBytes(changed));
+        assertEquals(PosixFilePermissions.fromString("rw-rw-r--"), Files.getPosixFilePermissions(changed));
+        assertEquals(PosixFilePermissions.fromString("rw-r--r--"),
+                Files.getPosixFilePermissions(outputDir.resolve("years.json")));
+    }
+
+    @Test
+    void testSingleFlight() throws Exception {
+        Path csvFile = tempDir.resolve("holiday.csv");
+        writeSourceCsv(csvFile);
+        Path lockFile = tempDir.resolve("lock/fetch.lock");
+        OpendataProperties.Holiday properties = new OpendataProperties.Holiday(csvFile.toUri().toString(),
+                outputDir().toString(), DownloadMode.STREAM, null, null, true, lockFile.toString());
+
+        // 作業執行中 (發布事件時) 再次呼叫會被略過
+        List<Boolean> nested = new ArrayList<>();
+        AtomicReference<FetchDataService> self = new AtomicReference<>();
+        FetchDataService service = new FetchDataService(objectMapper, new OpendataProperties(properties),
+                event -> nested.add(self.get().processExistingFiles()));
+        self.set(service);
+        assertTrue(service.fetchAndProcess());
+        assertEquals(List.of(false, false, false), nested);
+
+        // 其他程序持有檔案鎖時略過，不改動任何檔案
+        Files.delete(outputDir().resolve("2024.json"));
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE);
+                FileLock lock = channel.lock()) {
+            assertFalse(service.fetchAndProcess());
+            assertFalse(service.processExistingFiles());
+        }
+        assertFalse(Files.exists(outputDir().resolve("2024.json")));
+
+        // 釋放後可再次執行
+        assertTrue(service.fetchAndProcess());
+        assertTrue(Files.exists(outputDir().resolve("2024.json")));
+    }
+
+    private Path outputDir() {
+        return tempDir.resolve("out");
+    }
+
+    private void assertFetchReproducesPublishedJson(OpendataProperties.Holiday properties) throws Exception {
+        Path outputDir = Path.of(properties.outputDir());
+        List<Object> events = new ArrayList<>();
+        FetchDataService service = new FetchDataService(objectMapper, new OpendataProperties(properties),
+                events::add);
+        service.fetchAndProcess();
+
+        for (int year : YEARS) {
+            assertArrayEquals(Files.readAllBytes(Path.of(DATA_DIR, year + ".json")),
+                    Files.readAllBytes(outputDir.resolve(year + ".json")), year + " 年度 JSON 應與既有輸出逐位元組相同");
+        }
+        assertEquals("[ \"2025\", \"2024\", \"2023\" ]\n",
+                Files.readString(outputDir.resolve("years.json"), StandardCharsets.UTF_8));
+        assertEquals(List.of(new HolidayDataChangedEvent(2023), new HolidayDataChangedEvent(2024),
+                new HolidayDataChangedEvent(2025)), events);
+    }
+
+    /**
+     * 以既有年度 JSON 還原 OpenData CSV (含 BOM，不含程式產生的 note 欄位)。
+     */
+    private void writeSourceCsv(Path csvFile) throws Exception {
+        writeSourceCsv(csvFile, null);
+    }
+
+    /**
+     * 以既有年度 JSON 還原 OpenData CSV，並在指定日期的說明後加上「（測試）」。
+     */
+    private void writeSourceCsv(Path csvFile, String changedDate) throws Exception {
+        try (Writer writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+            writer.write('﻿');
+            try (CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
+                    .setHeader("Date", "name", "isHoliday", "holidayCategory", "description")
+                    .get())) {
+                for (int year : YEARS) {
+                    List<Holiday> holidays = objectMapper.readValue(new File(DATA_DIR, year + ".json"),
+                            new TypeReference<List<Holiday>>() {
+                            });
+                    for (Holiday holiday : holidays) {
+                        String description = holiday.getDate().equals(changedDate)
+                                ? holiday.getDescription() + "（測試）"
+                                : holiday.getDescription();
+                        printer.printRecord(holiday.getDate(), holiday.getName(), holiday.isHoliday() ? "是" : "否",
+                                holiday.getHolidayCategory(), description);
+                    }
+                }
+            }
+        }
+    }
+}
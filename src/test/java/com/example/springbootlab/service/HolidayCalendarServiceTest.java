@@ -0,0 +1,126 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.exception.ResourceNotFoundException;
+import com.example.springbootlab.model.BusinessDayCount;
+import com.example.springbootlab.model.CalendarDay;
+import com.example.springbootlab.model.Holiday;
+import com.example.springbootlab.model.calendar.HolidayCalendarIndex;
+import com.example.springbootlab.model.calendar.YearCalendar;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class HolidayCalendarServiceTest {
+
+    private static final String DATA_DIR = "src/main/resources/static/opendata/holiday";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private HolidayCalendarService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new HolidayCalendarService(objectMapper,
+                new OpendataProperties(new OpendataProperties.Holiday(null, DATA_DIR)));
+    }
+
+    @Test
+    void testRoundTripMatchesJsonFiles() throws Exception {
+        HolidayCalendarIndex index = service.getIndex();
+
+        for (int year : index.getYears()) {
+            List<Holiday> expected = objectMapper.readValue(new File(DATA_DIR, year + ".json"),
+                    new TypeReference<List<Holiday>>() {
+                    });
+            List<Holiday> sorted = expected.stream().sorted(Comparator.comparing(Holiday::getDate)).toList();
+
+            assertEquals(sorted, service.getHolidays(String.valueOf(year)), year + " 年度資料應完整還原");
+        }
+    }
+
+    @Test
+    void testDateLookup() {
+        YearCalendar calendar = service.getYearCalendar(2025);
+
+        // 元旦放假
+        int newYear = (int) LocalDate.of(2025, 1, 1).toEpochDay();
+        assertTrue(calendar.isHoliday(newYear));
+        assertEquals("中華民國開國紀念日", calendar.toHoliday(calendar.entryIndexOf(newYear)).getName());
+
+        // 補行上班日 (星期六)
+        int makeupDay = (int) LocalDate.of(2025, 2, 8).toEpochDay();
+        assertTrue(calendar.isWorkingDay(makeupDay));
+        assertEquals("補行上班日", calendar.toHoliday(calendar.entryIndexOf(makeupDay)).getHolidayCategory());
+
+        // 未列於資料中的平日
+        int weekday = (int) LocalDate.of(2025, 6, 3).toEpochDay();
+        assertTrue(calendar.isWorkingDay(weekday));
+        assertEquals(-1, calendar.entryIndexOf(weekday));
+    }
+
+    @Test
+    void testForEpochDay() {
+        HolidayCalendarIndex index = service.getIndex();
+
+        assertEquals(2016, index.forEpochDay((int) LocalDate.of(2016, 12, 31).toEpochDay()).getYear());
+        assertEquals(2017, index.forEpochDay((int) LocalDate.of(2017, 1, 1).toEpochDay()).getYear());
+        assertNull(index.forEpochDay((int) LocalDate.of(1999, 6, 1).toEpochDay()));
+        assertEquals(LocalDate.of(2024, 1, 1).toEpochDay(), YearCalendar.firstEpochDayOf(2024));
+    }
+
+    @Test
+    void testCountBusinessDaysMatchesDayByDayScan() {
+        LocalDate from = LocalDate.of(2013, 3, 15);
+        LocalDate to = LocalDate.of(2026, 10, 9);
+
+        List<CalendarDay> days = new ArrayList<>();
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            LocalDate start = year == from.getYear() ? from : LocalDate.of(year, 1, 1);
+            LocalDate end = year == to.getYear() ? to : LocalDate.of(year, 12, 31);
+            days.addAll(service.getCalendarDays(start, end));
+        }
+        long expected = days.stream().filter(CalendarDay::isWorkingDay).count();
+
+        BusinessDayCount count = service.countBusinessDays(from, to);
+        assertEquals(expected, count.getBusinessDays());
+        assertEquals(days.size(), count.getCalendarDays());
+        assertEquals(days.size() - expected, count.getHolidays());
+    }
+
+    @Test
+    void testCountBusinessDaysWithinWeek() {
+        // 2025/05/26 (一) ~ 2025/06/08 (日)，05/30 (五) 為端午節補假
+        BusinessDayCount count = service.countBusinessDays(LocalDate.of(2025, 5, 26), LocalDate.of(2025, 6, 8));
+
+        assertEquals(9, count.getBusinessDays());
+        assertEquals(14, count.getCalendarDays());
+        assertTrue(service.getCalendarDay(LocalDate.of(2025, 6, 2)).isWorkingDay());
+        assertFalse(service.getCalendarDay(LocalDate.of(2025, 5, 30)).isWorkingDay());
+        assertFalse(service.getCalendarDay(LocalDate.of(2025, 6, 8)).isWorkingDay());
+    }
+
+    @Test
+    void testMissingYear() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.countBusinessDays(LocalDate.of(2012, 12, 1), LocalDate.of(2013, 1, 31)));
+        assertThrows(ResourceNotFoundException.class, () -> service.getHolidays("1999"));
+        assertFalse(service.getIndex().getYears().isEmpty());
+        assertSame(service.getIndex(), service.getIndex());
+    }
+}
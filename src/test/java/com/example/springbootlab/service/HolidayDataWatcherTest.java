@@ -0,0 +1,123 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class HolidayDataWatcherTest {
+
+    private static final Path SOURCE_DIR = Path.of("src/main/resources/static/opendata/holiday");
+
+    @TempDir
+    Path dataDir;
+
+    private final List<HolidayDataChangedEvent> events = new CopyOnWriteArrayList<>();
+
+    private HolidayCalendarService calendarService;
+
+    private HolidayDataWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.copy(SOURCE_DIR.resolve("2024.json"), dataDir.resolve("2024.json"));
+        Files.copy(SOURCE_DIR.resolve("2025.json"), dataDir.resolve("2025.json"));
+        OpendataProperties properties = new OpendataProperties(
+                new OpendataProperties.Holiday(null, dataDir.toString()));
+        calendarService = new HolidayCalendarService(new ObjectMapper(), properties);
+        watcher = new HolidayDataWatcher(properties, event -> {
+            HolidayDataChangedEvent changed = (HolidayDataChangedEvent) event;
+            calendarService.onHolidayDataChanged(changed);
+            watcher.onHolidayDataChanged(changed);
+            events.add(changed);
+        });
+        calendarService.getIndex();
+        watcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.stop();
+    }
+
+    @Test
+    void testReloadsOnlyChangedYear() throws Exception {
+        var year2024 = calendarService.getYearCalendar(2024);
+
+        // 以暫存檔 + 原子搬移改寫 2025 年度 (與 FetchDataService 相同)
+        Path temp = dataDir.resolve(".2025.json.tmp");
+        Files.writeString(temp, Files.readString(dataDir.resolve("2025.json"), StandardCharsets.UTF_8)
+                .replace("中華民國開國紀念日", "測試紀念日"), StandardCharsets.UTF_8);
+        Files.move(temp, dataDir.resolve("2025.json"), StandardCopyOption.ATOMIC_MOVE);
+
+        awaitTrue(() -> "測試紀念日".equals(calendarService.getCalendarDay(LocalDate.of(2025, 1, 1)).getName()));
+        assertEquals(List.of(new HolidayDataChangedEvent(2025)), events);
+        assertTrue(year2024 == calendarService.getYearCalendar(2024), "未變更的年度不應重新載入");
+
+        // 刪除年度檔後自索引移除
+        Files.delete(dataDir.resolve("2025.json"));
+        awaitTrue(() -> !calendarService.getIndex().getYears().contains(2025));
+    }
+
+    @Test
+    void testYearsIndexOnlyLoadsAddedYears() throws Exception {
+        // 抓取與處理作業每次都會改寫 years.json，單獨改寫不應重新載入任何年度
+        Files.writeString(dataDir.resolve("years.json"), "[ \"2025\", \"2024\" ]", StandardCharsets.UTF_8);
+        Files.copy(SOURCE_DIR.resolve("2023.json"), dataDir.resolve("2023.json"));
+        Files.writeString(dataDir.resolve("years.json"), "[ \"2025\", \"2024\", \"2023\" ]",
+                StandardCharsets.UTF_8);
+
+        awaitTrue(() -> calendarService.getIndex().getYears().contains(2023));
+        Thread.sleep(500);
+        assertEquals(Set.of(2023), events.stream().map(HolidayDataChangedEvent::year).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testIgnoresChangeAlreadyPublishedByFetch() throws Exception {
+        // 排程抓取改寫後自行發布事件 (FetchDataService 經由 Spring 同步通知所有監聽者)
+        Path temp = dataDir.resolve(".2025.json.tmp");
+        Files.writeString(temp, Files.readString(dataDir.resolve("2025.json"), StandardCharsets.UTF_8)
+                .replace("中華民國開國紀念日", "測試紀念日"), StandardCharsets.UTF_8);
+        Files.move(temp, dataDir.resolve("2025.json"), StandardCopyOption.ATOMIC_MOVE);
+        HolidayDataChangedEvent published = new HolidayDataChangedEvent(2025);
+        calendarService.onHolidayDataChanged(published);
+        watcher.onHolidayDataChanged(published);
+        assertEquals("測試紀念日", calendarService.getCalendarDay(LocalDate.of(2025, 1, 1)).getName());
+
+        // 監看到的是同一次改寫，不再重複發布
+        Thread.sleep(1000);
+        assertTrue(events.isEmpty(), events.toString());
+
+        // 之後的外部改寫仍會處理
+        Files.copy(SOURCE_DIR.resolve("2025.json"), temp);
+        Files.move(temp, dataDir.resolve("2025.json"), StandardCopyOption.ATOMIC_MOVE);
+        awaitTrue(() -> !events.isEmpty());
+        assertEquals(List.of(new HolidayDataChangedEvent(2025)), events);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "逾時未偵測到檔案變更");
+            Thread.sleep(50);
+        }
+    }
+}
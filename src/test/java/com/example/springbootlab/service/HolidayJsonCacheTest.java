@@ -0,0 +1,131 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+import com.example.springbootlab.model.Holiday;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+class HolidayJsonCacheTest {
+
+    private static final Path SOURCE = Paths.get("src/main/resources/static/opendata/holiday/2025.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @TempDir
+    Path dataDir;
+
+    private HolidayCalendarService calendarService;
+
+    private HolidayJsonCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.copy(SOURCE, dataDir.resolve("2025.json"));
+        calendarService = new HolidayCalendarService(objectMapper,
+                new OpendataProperties(new OpendataProperties.Holiday(null, dataDir.toString())));
+        cache = new HolidayJsonCache(calendarService, objectMapper);
+    }
+
+    @Test
+    void testCompactAndCompressedVariants() throws Exception {
+        HolidayJsonCache.EncodedJson json = cache.getYear(2025);
+        List<Holiday> expected = objectMapper.readValue(SOURCE.toFile(), new TypeReference<List<Holiday>>() {
+        });
+
+        String identity = new String(json.identity(), StandardCharsets.UTF_8);
+        assertFalse(identity.contains("\n"), "應為不縮排的精簡 JSON");
+        assertEquals(expected, objectMapper.readValue(json.identity(), new TypeReference<List<Holiday>>() {
+        }));
+        assertArrayEquals(json.identity(), new GZIPInputStream(new ByteArrayInputStream(json.gzip())).readAllBytes());
+        assertArrayEquals(json.identity(),
+                new InflaterInputStream(new ByteArrayInputStream(json.deflate())).readAllBytes());
+    }
+
+    @Test
+    void testNegotiate() {
+        HolidayJsonCache.EncodedJson json = cache.getYear(2025);
+
+        assertEquals("gzip", json.negotiate("gzip, deflate, br").encoding());
+        assertEquals("deflate", json.negotiate("deflate").encoding());
+        assertEquals("deflate", json.negotiate("gzip;q=0, deflate;q=0.5").encoding());
+        assertEquals("gzip", json.negotiate("*").encoding());
+        assertNull(json.negotiate("br").encoding());
+        assertNull(json.negotiate(null).encoding());
+        assertNull(json.negotiate("gzip;q=0, *;q=0").encoding());
+
+        // 各編碼版本使用不同的強 ETag
+        assertEquals("\"" + json.etag() + "-gzip\"", json.negotiate("gzip").etag());
+        assertEquals("\"" + json.etag() + "-deflate\"", json.negotiate("deflate").etag());
+        assertEquals("\"" + json.etag() + "\"", json.negotiate(null).etag());
+    }
+
+    @Test
+    void testGetYearDoesNotReloadOnRequestPath() throws Exception {
+        AtomicInteger reloads = new AtomicInteger();
+        HolidayCalendarService countingService = new HolidayCalendarService(objectMapper,
+                new OpendataProperties(new OpendataProperties.Holiday(null, dataDir.toString()))) {
+            @Override
+            public synchronized void reloadYear(int year) {
+                reloads.incrementAndGet();
+                super.reloadYear(year);
+            }
+        };
+        HolidayJsonCache countingCache = new HolidayJsonCache(countingService, objectMapper);
+        HolidayJsonCache.EncodedJson first = countingCache.getYear(2025);
+
+        // 檔案改寫但尚未收到變更事件：請求仍回傳目前的快照，不在請求執行緒重新載入
+        Path file = dataDir.resolve("2025.json");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        assertSame(first, countingCache.getYear(2025));
+        assertEquals(0, reloads.get());
+
+        countingService.onHolidayDataChanged(new HolidayDataChangedEvent(2025));
+        assertEquals(1, reloads.get());
+    }
+
+    @Test
+    void testRebuildOnlyWhenFileChanges() throws Exception {
+        HolidayJsonCache.EncodedJson first = cache.getYear(2025);
+        assertSame(first, cache.getYear(2025));
+
+        Path file = dataDir.resolve("2025.json");
+        List<Holiday> holidays = objectMapper.readValue(file.toFile(), new TypeReference<List<Holiday>>() {
+        });
+        holidays.get(0).setNote("測試備註");
+        objectMapper.writeValue(file.toFile(), holidays);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        calendarService.onHolidayDataChanged(new HolidayDataChangedEvent(2025));
+
+        HolidayJsonCache.EncodedJson second = cache.getYear(2025);
+        assertNotSame(first, second);
+        assertNotEquals(first.etag(), second.etag());
+        assertEquals(Files.getLastModifiedTime(file).toMillis(), second.lastModified());
+        assertEquals("測試備註", objectMapper.readValue(second.identity(), new TypeReference<List<Holiday>>() {
+        }).get(0).getNote());
+    }
+}
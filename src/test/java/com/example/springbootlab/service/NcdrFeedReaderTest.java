@@ -0,0 +1,90 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.springbootlab.model.ncdr.NcdrAlertIndex;
+import com.example.springbootlab.model.ncdr.NcdrEntry;
+import com.example.springbootlab.model.ncdr.NcdrHolidayResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class NcdrFeedReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final NcdrFeedReader reader = new NcdrFeedReader(objectMapper.getFactory());
+
+    @Test
+    void testMatchesDatabindAndFilter() throws Exception {
+        byte[] feed = NcdrFeedStub.fixture("ncdr/typhoon-feed.json");
+
+        List<NcdrEntry> expected = objectMapper.readValue(feed, NcdrHolidayResponse.class).getEntry().stream()
+                .filter(entry -> NcdrAlertIndex.parseLocation(entry) != null)
+                .toList();
+
+        assertEquals(expected, reader.read(new ByteArrayInputStream(feed)));
+    }
+
+    @Test
+    void testIndexCountsUnparsedEntries() throws Exception {
+        String json = """
+                {"entry":[
+                  {"id":"A1","summary":{"#text":"停班停課資訊更新中"}},
+                  {"id":"A2","summary":{"#text":"[停班停課通知]臺北市:今天停止上班、停止上課。"}},
+                  {"id":"A3","summary":{"#text":null}}
+                ]}
+                """;
+        List<NcdrEntry> all = objectMapper.readValue(json, NcdrHolidayResponse.class).getEntry();
+
+        NcdrAlertIndex index = reader.readIndex(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(3, index.getEntryCount());
+        assertEquals(NcdrAlertIndex.of(all).getEntryCount(), index.getEntryCount());
+        assertEquals(NcdrAlertIndex.of(all).getCities(), index.getCities());
+    }
+
+    @Test
+    void testSingleEntryObject() throws Exception {
+        List<NcdrEntry> entries = read("""
+                {"title":"停班停課","entry":{"id":"A1","author":{"name":"臺北市政府"},
+                 "summary":{"@type":"html","#text":"[停班停課通知]臺北市:今天停止上班、停止上課。"}}}
+                """);
+
+        assertEquals(1, entries.size());
+        assertEquals("A1", entries.get(0).getId());
+    }
+
+    @Test
+    void testSkipsIrrelevantEntries() throws Exception {
+        List<NcdrEntry> entries = read("""
+                {"entry":[
+                  {"id":"A1","summary":{"#text":"停班停課資訊更新中"}},
+                  {"id":"A2","link":[{"@href":"x"},{"@href":"y"}],"summary":{"#text":null}},
+                  null,
+                  {"id":"A3","category":{"@term":"停班停課"},"updated":"2025-07-28T06:00:00+08:00",
+                   "summary":{"@type":"html","nested":{"#text":"ignored"},"#text":"[停班停課通知]花蓮縣秀林鄉:今天停止上班。"}}
+                ],"updated":"2025-07-28T06:10:00+08:00"}
+                """);
+
+        assertEquals(1, entries.size());
+        assertEquals("A3", entries.get(0).getId());
+        assertEquals("2025-07-28T06:00:00+08:00", entries.get(0).getUpdated());
+        assertEquals("[停班停課通知]花蓮縣秀林鄉:今天停止上班。", entries.get(0).getSummary().getText());
+    }
+
+    @Test
+    void testRejectsMalformedFeed() {
+        assertThrows(IOException.class, () -> read("[]"));
+        assertThrows(IOException.class, () -> read("{\"entry\":[{\"id\":"));
+    }
+
+    private List<NcdrEntry> read(String json) throws IOException {
+        return reader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.springbootlab.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 本機 NCDR JSON Atom Feed 模擬伺服器 (測試用)。
+ *
+ * <p>
+ * 預設回應 {@code ncdr/typhoon-feed.json}，可切換回應內容、狀態碼，
+ * 或以閘門暫停回應以模擬上游延遲，並記錄收到的請求數。
+ * 設定 ETag 後支援條件式請求 ({@code If-None-Match} 相符時回應 304)。
+ * </p>
+ */
+public class NcdrFeedStub implements AutoCloseable {
+
+    private static final String PATH = "/JSONAtomFeed.ashx";
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private volatile byte[] body = fixture("ncdr/typhoon-feed.json");
+
+    private volatile int status = 200;
+
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    private volatile String etag;
+
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    private NcdrFeedStub(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * 啟動模擬伺服器 (綁定本機隨機連接埠)。
+     */
+    public static NcdrFeedStub start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        NcdrFeedStub stub = new NcdrFeedStub(server);
+        server.createContext(PATH, exchange -> {
+            stub.hits.incrementAndGet();
+            try {
+                stub.gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = stub.body;
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            String etag = stub.etag;
+            if (etag != null) {
+                exchange.getResponseHeaders().add("ETag", etag);
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    stub.notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+            }
+            exchange.sendResponseHeaders(stub.status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.setExecutor(stub.executor);
+        server.start();
+        return stub;
+    }
+
+    /**
+     * 讀取 classpath 上的 NCDR 範例檔。
+     */
+    public static byte[] fixture(String resource) {
+        try (InputStream in = NcdrFeedStub.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("找不到測試資料: " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+                + PATH + "?AlertType=33";
+    }
+
+    public int hits() {
+        return hits.get();
+    }
+
+    public void respond(int status, String body) {
+        this.status = status;
+        this.body = body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 暫停回應，直到傳回的閘門被開啟。
+     */
+    public CountDownLatch hold() {
+        CountDownLatch latch = new CountDownLatch(1);
+        gate = latch;
+        return latch;
+    }
+
+    /**
+     * 設定回應的 ETag (null 表示不支援條件式請求)。
+     */
+    public void etag(String etag) {
+        this.etag = etag;
+    }
+
+    /**
+     * 回應 304 的次數。
+     */
+    public int notModifiedHits() {
+        return notModified.get();
+    }
+
+    @Override
+    public void close() {
+        gate.countDown();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.example.springbootlab.config.PdfProperties;
+import com.example.springbootlab.event.HolidayDataChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PdfCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path cacheDir;
+
+    private PdfCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PdfCache(new PdfProperties(
+                new PdfProperties.Cache(DataSize.ofBytes(100), 3, cacheDir.toString()), null, null), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBySize() throws Exception {
+        PdfCache.CachedPdf a = put(key(2023, "a"), 40);
+        PdfCache.CachedPdf b = put(key(2024, "b"), 40);
+        cache.get(key(2023, "a"));
+
+        // 超過 100 bytes，淘汰最久未使用的 2024 並刪除其檔案
+        put(key(2025, "c"), 40);
+        assertNotNull(cache.get(key(2023, "a")));
+        assertNull(cache.get(key(2024, "b")));
+        assertTrue(Files.exists(a.file()));
+        assertFalse(Files.exists(b.file()));
+        assertEquals(80, cache.totalBytes());
+
+        // 超過總上限的單一項目不快取，回傳暫時檔案
+        PdfCache.CachedPdf large = put(key(2026, "d"), 101);
+        assertTrue(large.temporary());
+        assertNull(cache.get(key(2026, "d")));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testEvictsByEntryCount() throws Exception {
+        for (int year = 2020; year < 2025; year++) {
+            put(key(year, "h"), 1);
+        }
+        assertEquals(3, cache.size());
+        assertNull(cache.get(key(2021, "h")));
+        assertEquals(2.0, meterRegistry.get("holiday.pdf.cache.evictions").counter().count());
+    }
+
+    @Test
+    void testInvalidateYearOnDataChanged() throws Exception {
+        PdfCache.CachedPdf old = put(key(2025, "old"), 3);
+        put(key(2024, "x"), 3);
+        assertArrayEquals(new byte[3], Files.readAllBytes(cache.get(key(2025, "old")).file()));
+
+        cache.onHolidayDataChanged(new HolidayDataChangedEvent(2025));
+        assertNull(cache.get(key(2025, "old")));
+        assertFalse(Files.exists(old.file()));
+        assertNotNull(cache.get(key(2024, "x")));
+
+        assertEquals(2.0, meterRegistry.get("holiday.pdf.cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("holiday.pdf.cache.gets").tag("result", "miss").counter().count());
+        assertEquals(3.0, meterRegistry.get("holiday.pdf.cache.bytes").gauge().value());
+    }
+
+    @Test
+    void testFailedWriteLeavesNoFile() throws Exception {
+        assertThrows(IOException.class, () -> cache.store(key(2025, "e"), out -> {
+            out.write(1);
+            throw new IOException("產生失敗");
+        }));
+        assertNull(cache.get(key(2025, "e")));
+        try (var files = Files.list(cacheDir)) {
+            assertEquals(0, files.count(), "失敗時不應遺留暫存檔");
+        }
+    }
+
+    private PdfCache.CachedPdf put(PdfCache.Key key, int size) throws IOException {
+        return cache.store(key, out -> out.write(new byte[size]));
+    }
+
+    private static PdfCache.Key key(int year, String hash) {
+        return new PdfCache.Key(year, hash, PdfService.TEMPLATE_VERSION);
+    }
+}
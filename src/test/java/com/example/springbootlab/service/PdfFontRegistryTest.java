@@ -0,0 +1,76 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.unit.DataSize;
+
+import com.example.springbootlab.config.PdfProperties;
+import com.example.springbootlab.model.Holiday;
+
+class PdfFontRegistryTest {
+
+    /** PDFBox 內附的字型，以範本使用的字型名稱註冊，用於驗證字型共用機制 */
+    private static final String TEST_FONT = "classpath:org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+
+    private static PdfFontRegistry registry(String location, int poolSize) {
+        return new PdfFontRegistry(new PdfProperties(new PdfProperties.Cache(DataSize.ofMegabytes(1), 1, null),
+                new PdfProperties.Font(location, "Noto Sans CJK TC", poolSize), null), new DefaultResourceLoader());
+    }
+
+    @Test
+    void testParsedFontIsReused() throws Exception {
+        PdfFontRegistry registry = registry(TEST_FONT, 2);
+        assertTrue(registry.isAvailable());
+
+        TrueTypeFont first;
+        TrueTypeFont second;
+        try (PdfFontRegistry.FontLease a = registry.acquire(); PdfFontRegistry.FontLease b = registry.acquire()) {
+            first = a.font();
+            second = b.font();
+            assertNotSame(first, second, "同時借出的字型不可為同一份");
+        }
+        try (PdfFontRegistry.FontLease c = registry.acquire()) {
+            assertTrue(c.font() == first || c.font() == second, "歸還後應重複使用已解析的字型");
+        }
+    }
+
+    @Test
+    void testRenderWithPooledFont() throws Exception {
+        PdfFontRegistry registry = registry(TEST_FONT, 1);
+        PdfService pdfService = new PdfService(registry);
+        List<Holiday> holidays = List.of(Holiday.builder().date("20250101").name("New Year").isHoliday(true)
+                .holidayCategory("Holiday").description("New Year's Day").build());
+
+        byte[] first = pdfService.generateHolidayPdf("2025", holidays);
+        byte[] second = pdfService.generateHolidayPdf("2025", holidays);
+        assertTrue(new String(first, StandardCharsets.ISO_8859_1).contains("+LiberationSans"), "應嵌入字型子集");
+        assertEquals(first.length, second.length);
+
+        TrueTypeFont font;
+        try (PdfFontRegistry.FontLease lease = registry.acquire()) {
+            font = lease.font();
+        }
+        try (PdfFontRegistry.FontLease lease = registry.acquire()) {
+            assertSame(font, lease.font(), "產生 PDF 後字型應已歸還並重複使用");
+        }
+    }
+
+    @Test
+    void testMissingFont() throws Exception {
+        PdfFontRegistry registry = registry("classpath:fonts/missing.ttf", 1);
+        assertFalse(registry.isAvailable());
+        assertNull(registry.acquire());
+        assertTrue(new PdfService(registry).generateHolidayPdf("2025", List.of()).length > 0);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.springbootlab.model.Holiday;
+
+class PdfHtmlTemplateTest {
+
+    private final PdfHtmlTemplate template = new PdfHtmlTemplate("/* list */");
+
+    @Test
+    void testAppendEscaped() {
+        StringBuilder sb = new StringBuilder();
+        PdfHtmlTemplate.appendEscaped(sb, "A&B <C> \"D\" 'E' 中文");
+        assertEquals("A&amp;B &lt;C&gt; &quot;D&quot; &#39;E&#39; 中文", sb.toString());
+
+        sb.setLength(0);
+        PdfHtmlTemplate.appendEscaped(sb, null);
+        PdfHtmlTemplate.appendEscaped(sb, "&");
+        assertEquals("&amp;", sb.toString());
+    }
+
+    @Test
+    void testRenderRows() {
+        List<Holiday> holidays = List.of(
+                Holiday.builder().date("20250101").name("開國紀念日").isHoliday(true).holidayCategory("放假之紀念日及節日")
+                        .description("<全國>").build(),
+                Holiday.builder().date("20250208").name("").isHoliday(false).holidayCategory("補行上班日")
+                        .description("").note("農曆除夕").build());
+
+        String html = template.render("2025", holidays);
+
+        assertTrue(html.startsWith("<!DOCTYPE html><html><head><meta charset='UTF-8'/>"));
+        assertTrue(html.contains("/* list */</style></head><body><h1>2025 年中華民國政府行政機關辦公日曆表</h1>"));
+        assertTrue(html.contains("<tr><td class='text-center'>2025/01/01</td><td class='text-center'>"
+                + "<span class='badge badge-yes'>放假</span></td><td>開國紀念日</td>"
+                + "<td class='text-center'>放假之紀念日及節日</td><td>&lt;全國&gt;</td></tr>"));
+        assertTrue(html.contains("<span class='badge badge-no'>上班</span>"));
+        assertTrue(html.contains("<br/><span class='note'>(農曆除夕)</span></td></tr></tbody></table>"));
+        assertTrue(html.endsWith("</div></body></html>"));
+
+        // 重複使用輸出緩衝時結果不受前次內容影響
+        assertEquals(html, template.render("2025", holidays));
+        assertFalse(template.render("2024", List.of()).contains("開國紀念日"));
+    }
+}
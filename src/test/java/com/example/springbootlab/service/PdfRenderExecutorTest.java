@@ -0,0 +1,115 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.example.springbootlab.config.PdfProperties;
+import com.example.springbootlab.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PdfRenderExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PdfRenderExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PdfRenderExecutor(new PdfProperties(new PdfProperties.Cache(DataSize.ofMegabytes(1), 1, null),
+                null, new PdfProperties.Render(1, 1, Duration.ofSeconds(7))), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneRender() throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        CompletableFuture<PdfCache.CachedPdf> first = executor.submit(key(2025), () -> {
+            renders.incrementAndGet();
+            release.await();
+            return pdf("first");
+        });
+        CompletableFuture<PdfCache.CachedPdf> second = executor.submit(key(2025), () -> {
+            renders.incrementAndGet();
+            return pdf("second");
+        });
+        assertSame(first, second);
+
+        release.countDown();
+        assertEquals(pdf("first"), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, renders.get());
+        assertEquals(1.0, meterRegistry.get("holiday.pdf.render.coalesced").counter().count());
+        assertEquals(1, meterRegistry.get("holiday.pdf.render").timer().count());
+    }
+
+    @Test
+    void testSharedTemporaryFileDeletedAfterLastRelease(@TempDir Path dir) throws Exception {
+        Path file = Files.write(dir.resolve("large.pdf"), new byte[1]);
+        CompletableFuture<PdfCache.CachedPdf> first = executor.submit(key(2025), () -> {
+            release.await();
+            return new PdfCache.CachedPdf(file, 1, true);
+        });
+        CompletableFuture<PdfCache.CachedPdf> second = executor.submit(key(2025), () -> pdf("second"));
+        release.countDown();
+
+        // 第一個請求輸出結束後，第二個請求仍可讀取暫時檔案
+        first.get(5, TimeUnit.SECONDS).release();
+        assertTrue(Files.exists(file));
+        second.get(5, TimeUnit.SECONDS).release();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void testRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(key(2024), () -> {
+            started.countDown();
+            release.await();
+            return pdf("2024");
+        });
+        started.await(5, TimeUnit.SECONDS);
+        // 執行緒忙碌中，第二筆進入佇列
+        CompletableFuture<PdfCache.CachedPdf> queued = executor.submit(key(2025), () -> pdf("2025"));
+        assertEquals(1.0, meterRegistry.get("holiday.pdf.render.queue").gauge().value());
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> executor.submit(key(2026), () -> pdf("2026")));
+        assertEquals(Duration.ofSeconds(7), ex.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("holiday.pdf.render.rejected").counter().count());
+
+        release.countDown();
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    private static PdfCache.CachedPdf pdf(String name) {
+        return new PdfCache.CachedPdf(Path.of(name + ".pdf"), 1, false);
+    }
+
+    private static PdfCache.Key key(int year) {
+        return new PdfCache.Key(year, "hash", PdfService.TEMPLATE_VERSION);
+    }
+}
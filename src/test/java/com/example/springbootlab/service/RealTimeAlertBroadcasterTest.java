@@ -0,0 +1,131 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.springbootlab.config.HttpClientConfig;
+import com.example.springbootlab.config.NcdrProperties;
+import com.example.springbootlab.controller.RealTimeHolidayStreamController;
+import com.example.springbootlab.model.ncdr.NcdrAlertIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class RealTimeAlertBroadcasterTest {
+
+    /** 不快取，每次輪詢都向上游查詢一次 */
+    private static NcdrProperties properties(NcdrFeedStub stub) {
+        return new NcdrProperties(stub.url(), Duration.ofSeconds(5),
+                new NcdrProperties.Realtime(Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO),
+                new NcdrProperties.Stream(Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofMinutes(30)));
+    }
+
+    private static NcdrFeedService feedService(NcdrProperties properties) {
+        return new NcdrFeedService(properties, HttpClientConfig.ncdrRequestFactory(properties, false),
+                Clock.systemUTC());
+    }
+
+    @Test
+    void testPushesOnlyChangedSubscriptions() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            ObjectMapper objectMapper = new ObjectMapper();
+            NcdrProperties properties = properties(stub);
+            RealTimeAlertBroadcaster broadcaster = new RealTimeAlertBroadcaster(
+                    new RealTimeHolidayService(objectMapper, feedService(properties)), properties, objectMapper);
+            MockMvc mockMvc = MockMvcBuilders
+                    .standaloneSetup(new RealTimeHolidayStreamController(broadcaster))
+                    .build();
+
+            MockHttpServletResponse taipei = mockMvc.perform(get("/api/holidays/realtime/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn().getResponse();
+            MockHttpServletResponse greenIsland = mockMvc
+                    .perform(get("/api/holidays/realtime/stream").param("city", "台東縣").param("district", "綠島鄉"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn().getResponse();
+
+            // 連線後立即送出目前的狀態
+            String taipeiEvents = content(taipei);
+            assertTrue(taipeiEvents.startsWith("event:alerts\ndata:[{"), taipeiEvents);
+            assertTrue(taipeiEvents.contains("CWA-Typhoon-33-20250728-0001"));
+            assertTrue(content(greenIsland).contains("CWA-Typhoon-33-20250728-0005"));
+            assertEquals(2, broadcaster.getConnectionCount());
+
+            // 內容未變動時不推送
+            int hits = stub.hits();
+            broadcaster.poll();
+            assertEquals(taipeiEvents, content(taipei));
+            assertEquals(hits + 1, stub.hits(), "每次輪詢只查詢上游一次");
+
+            // 臺北市解除，綠島鄉不變：只推送給臺北市的連線
+            String greenIslandEvents = content(greenIsland);
+            stub.respond(200, """
+                    {"entry":{"id":"CWA-Typhoon-33-20250728-0005","title":"停班停課通知",
+                     "updated":"2025-07-28T06:10:00+08:00","summary":{"#text":"[停班停課通知]台東縣蘭嶼鄉、綠島鄉：今天停止上班、停止上課。"}}}
+                    """);
+            broadcaster.poll();
+            assertTrue(content(taipei).endsWith("event:alerts\ndata:[]\n\n"), content(taipei));
+            assertEquals(greenIslandEvents, content(greenIsland));
+            assertEquals(hits + 2, stub.hits());
+            assertFalse(greenIslandEvents.contains("0001"));
+        }
+    }
+
+    @Test
+    void testPollDuringSubscribeDoesNotLeaveStaleAlerts() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            ObjectMapper objectMapper = new ObjectMapper();
+            NcdrProperties properties = properties(stub);
+            NcdrAlertIndex alerts = new NcdrFeedReader(objectMapper.getFactory())
+                    .readIndex(getClass().getResourceAsStream("/ncdr/typhoon-feed.json"));
+            AtomicReference<NcdrAlertIndex> current = new AtomicReference<>(alerts);
+            AtomicReference<Runnable> duringQuery = new AtomicReference<>();
+            RealTimeHolidayService service = new RealTimeHolidayService(objectMapper, feedService(properties)) {
+                @Override
+                public NcdrAlertIndex getAlertIndex() {
+                    NcdrAlertIndex index = current.get();
+                    Runnable hook = duringQuery.getAndSet(null);
+                    if (hook != null) {
+                        hook.run();
+                    }
+                    return index;
+                }
+            };
+            RealTimeAlertBroadcaster broadcaster = new RealTimeAlertBroadcaster(service, properties, objectMapper);
+            MockMvc mockMvc = MockMvcBuilders
+                    .standaloneSetup(new RealTimeHolidayStreamController(broadcaster))
+                    .build();
+
+            // 新連線查詢目前警報期間：另一條連線加入同一訂閱條件，警報解除並完成一次輪詢推送
+            duringQuery.set(() -> {
+                broadcaster.subscribe(null, null);
+                current.set(NcdrAlertIndex.EMPTY);
+                broadcaster.poll();
+            });
+            MockHttpServletResponse late = mockMvc.perform(get("/api/holidays/realtime/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn().getResponse();
+
+            // 查詢到的舊內容不可蓋過輪詢已推送的內容，之後內容不變的輪詢也不會再修正
+            broadcaster.poll();
+            String events = content(late);
+            assertEquals("[]", events.substring(events.lastIndexOf("data:") + 5).trim(), events);
+            assertEquals(2, broadcaster.getConnectionCount());
+        }
+    }
+
+    private static String content(MockHttpServletResponse response) throws Exception {
+        return response.getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -1,76 +1,318 @@
 package com.example.springbootlab.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.lang.reflect.Method;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.example.springbootlab.config.HttpClientConfig;
+import com.example.springbootlab.config.NcdrProperties;
+import com.example.springbootlab.model.ncdr.NcdrAlertIndex;
 import com.example.springbootlab.model.ncdr.NcdrEntry;
 import com.example.springbootlab.model.ncdr.NcdrSummary;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 class RealTimeHolidayServiceTest {
 
-    private RealTimeHolidayService service;
-    private Method isTaipeiCityAllAreaMethod;
-
-    @BeforeEach
-    void setUp() throws Exception {
-        service = new RealTimeHolidayService(new ObjectMapper());
-
-        // 使用反射存取 private 方法進行測試
-        isTaipeiCityAllAreaMethod = RealTimeHolidayService.class.getDeclaredMethod("isTaipeiCityAllArea",
-                NcdrEntry.class);
-        isTaipeiCityAllAreaMethod.setAccessible(true);
-    }
-
     @Test
-    void testIsTaipeiCityAllArea_Positive() throws Exception {
+    void testIsTaipeiCityAllArea_Positive() {
         // 測試案例 1: 臺北市全區 (標準格式)
-        assertTrue(invokeMethod("[停班停課通知]臺北市:今天停止上班、停止上課。"));
+        assertTrue(isTaipeiCityAllArea("[停班停課通知]臺北市:今天停止上班、停止上課。"));
 
         // 測試案例 2: 台北市全區 (不同寫法)
-        assertTrue(invokeMethod("[停班停課通知]台北市:今天停止上班、停止上課。"));
+        assertTrue(isTaipeiCityAllArea("[停班停課通知]台北市:今天停止上班、停止上課。"));
 
         // 測試案例 3: 全形冒號
-        assertTrue(invokeMethod("[停班停課通知]臺北市：今天停止上班、停止上課。"));
+        assertTrue(isTaipeiCityAllArea("[停班停課通知]臺北市：今天停止上班、停止上課。"));
+
+        assertEquals(new NcdrAlertIndex.Location("臺北市", List.of()),
+                NcdrAlertIndex.parseLocation(entry("[停班停課通知]台北市:今天停止上班、停止上課。")));
     }
 
     @Test
-    void testIsTaipeiCityAllArea_Negative() throws Exception {
+    void testIsTaipeiCityAllArea_Negative() {
         // 測試案例 1: 其他縣市
-        assertFalse(invokeMethod("[停班停課通知]新北市:今天停止上班、停止上課。"));
+        assertFalse(isTaipeiCityAllArea("[停班停課通知]新北市:今天停止上班、停止上課。"));
 
         // 測試案例 2: 臺北市特定區 (北投區) - 應為 False
         // 根據 NCDR 格式，特定區通常寫為 "臺北市北投區:"
-        assertFalse(invokeMethod("[停班停課通知]臺北市北投區:今天停止上班、停止上課。"));
+        assertFalse(isTaipeiCityAllArea("[停班停課通知]臺北市北投區:今天停止上班、停止上課。"));
 
         // 測試案例 3: 台北市特定區
-        assertFalse(invokeMethod("[停班停課通知]台北市士林區:今天停止上班、停止上課。"));
+        assertFalse(isTaipeiCityAllArea("[停班停課通知]台北市士林區:今天停止上班、停止上課。"));
 
         // 測試案例 4: 內容提及但非發布對象
-        assertFalse(invokeMethod("[停班停課通知]基隆市:今天停止上班，台北市正常上班上課。"));
+        assertFalse(isTaipeiCityAllArea("[停班停課通知]基隆市:今天停止上班，台北市正常上班上課。"));
     }
 
     @Test
-    void testIsTaipeiCityAllArea_EdgeCases() throws Exception {
+    void testIsTaipeiCityAllArea_EdgeCases() {
         // Null Check
-        assertFalse((boolean) isTaipeiCityAllAreaMethod.invoke(service, new NcdrEntry()));
+        assertNull(NcdrAlertIndex.parseLocation(new NcdrEntry()));
 
         NcdrEntry entry = new NcdrEntry();
         entry.setSummary(new NcdrSummary());
-        assertFalse((boolean) isTaipeiCityAllAreaMethod.invoke(service, entry));
+        assertNull(NcdrAlertIndex.parseLocation(entry));
+        assertTrue(NcdrAlertIndex.of(List.of(new NcdrEntry(), entry)).find("臺北市", null).isEmpty());
+    }
+
+    /**
+     * 以實際查詢使用的警報索引判斷是否為台北市全區停班停課 (未指定行政區時只回傳全區警報)。
+     */
+    private static boolean isTaipeiCityAllArea(String text) {
+        NcdrEntry entry = entry(text);
+        return NcdrAlertIndex.of(List.of(entry)).find("臺北市", null).contains(entry);
     }
 
-    private boolean invokeMethod(String text) throws Exception {
+    private static NcdrEntry entry(String text) {
         NcdrEntry entry = new NcdrEntry();
         NcdrSummary summary = new NcdrSummary();
         summary.setText(text);
         entry.setSummary(summary);
+        return entry;
+    }
+
+    @Test
+    void testCachedWithinTtl() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            RealTimeHolidayService cached = newService(stub, new MutableClock());
+
+            List<NcdrEntry> entries = cached.getRealTimeHolidays();
+            assertEquals(1, entries.size());
+            assertEquals("CWA-Typhoon-33-20250728-0001", entries.get(0).getId());
+
+            assertEquals(entries, cached.getRealTimeHolidays());
+            assertEquals(1, stub.hits(), "TTL 內不應重新查詢上游");
+        }
+    }
+
+    @Test
+    void testAlertIndexByCityAndDistrict() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            RealTimeHolidayService cached = newService(stub, new MutableClock());
+
+            // 未指定縣市時維持台北市全區
+            assertEquals(ids("0001"), ids(cached.getRealTimeHolidays()));
+            assertEquals(ids("0001"), ids(cached.getRealTimeHolidays("台北市", null)));
+
+            // 行政區查詢包含全區警報；沒有個別警報的行政區只有全區警報
+            assertEquals(ids("0001", "0003"), ids(cached.getRealTimeHolidays("臺北市", "北投區")));
+            assertEquals(ids("0001"), ids(cached.getRealTimeHolidays("臺北市", "大安區")));
+            assertEquals(ids("0006", "0002"), ids(cached.getRealTimeHolidays("新北市", "瑞芳區")));
+
+            // 一則警報列出多個行政區，「台」「臺」視為相同
+            assertTrue(cached.getRealTimeHolidays("臺東縣", null).isEmpty());
+            assertEquals(ids("0005"), ids(cached.getRealTimeHolidays("臺東縣", "綠島鄉")));
+            assertEquals(ids("0005"), ids(cached.getRealTimeHolidays("台東縣", "蘭嶼鄉")));
+
+            assertTrue(cached.getRealTimeHolidays("高雄市", null).isEmpty());
+            assertEquals(6, cached.getAlertIndex().getEntryCount());
+            assertEquals(1, stub.hits(), "索引於每次抓取時建立一次，查詢不應重新抓取");
+        }
+    }
+
+    @Test
+    void testRefreshAheadServesCurrentValue() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            MutableClock clock = new MutableClock();
+            RealTimeHolidayService cached = newService(stub, clock);
+            assertEquals(1, cached.getRealTimeHolidays().size());
+
+            // 進入到期前 30 秒的區間：先回傳目前的值，背景重新抓取
+            stub.respond(200, "{\"entry\":[]}");
+            clock.advance(Duration.ofSeconds(100));
+            assertEquals(1, cached.getRealTimeHolidays().size());
+
+            awaitTrue(() -> cached.getRealTimeHolidays().isEmpty());
+            assertEquals(2, stub.hits());
+        }
+    }
+
+    @Test
+    void testServesLastGoodValueWhenUpstreamFails() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            MutableClock clock = new MutableClock();
+            RealTimeHolidayService cached = newService(stub, clock);
+            assertEquals(1, cached.getRealTimeHolidays().size());
+
+            // 到期後 (max-stale 內) 回傳舊值並於背景重新抓取
+            stub.respond(500, "error");
+            clock.advance(Duration.ofSeconds(130));
+            assertEquals(1, cached.getRealTimeHolidays().size());
+            awaitIdle(cached);
+            assertEquals(2, stub.hits());
+
+            // 超過 max-stale 後同步重新抓取，失敗時仍回傳最後一次成功的結果
+            clock.advance(Duration.ofMinutes(15));
+            assertEquals(1, cached.getRealTimeHolidays().size());
+            assertEquals(3, stub.hits());
+
+            // 重試間隔內不再查詢上游
+            assertEquals(1, cached.getRealTimeHolidays().size());
+            assertEquals(3, stub.hits());
+        }
+    }
+
+    @Test
+    void testFirstLoadFailureIsNotRetriedPerRequest() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            MutableClock clock = new MutableClock();
+            RealTimeHolidayService cached = newService(stub, clock);
+            stub.respond(503, "unavailable");
+
+            assertTrue(cached.getRealTimeHolidays().isEmpty());
+            assertTrue(cached.getRealTimeHolidays().isEmpty());
+            assertEquals(1, stub.hits());
+
+            stub.respond(200, new String(NcdrFeedStub.fixture("ncdr/typhoon-feed.json"), StandardCharsets.UTF_8));
+            clock.advance(Duration.ofSeconds(31));
+            assertEquals(1, cached.getRealTimeHolidays().size());
+            assertEquals(2, stub.hits());
+        }
+    }
+
+    @Test
+    void testErrorDuringRefreshCompletesInFlight() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start()) {
+            MutableClock clock = new MutableClock();
+            RealTimeHolidayService cached = newService(stub, clock);
+
+            // 抓取期間發生 Error (如解析時 StackOverflowError)：等待中的請求不可永遠等待
+            clock.failNextRefresh(new StackOverflowError("測試"));
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertTrue(cached.getRealTimeHolidays().isEmpty()));
+            awaitIdle(cached);
+
+            // 重試間隔過後可再次抓取
+            clock.advance(Duration.ofSeconds(31));
+            assertEquals(1, cached.getRealTimeHolidays().size());
+            assertEquals(2, stub.hits());
+        }
+    }
+
+    @Test
+    void testSingleFlight() throws Exception {
+        try (NcdrFeedStub stub = NcdrFeedStub.start();
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            RealTimeHolidayService cached = newService(stub, new MutableClock());
+            CountDownLatch gate = stub.hold();
+
+            List<Future<List<NcdrEntry>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cached.getRealTimeHolidays()));
+            }
+            awaitTrue(() -> stub.hits() == 1);
+            Thread.sleep(200);
+            gate.countDown();
+
+            for (Future<List<NcdrEntry>> result : results) {
+                assertEquals(1, result.get().size());
+            }
+            assertEquals(1, stub.hits(), "同時到達的請求應共用同一次上游查詢");
+        }
+    }
+
+    private static List<String> ids(String... suffixes) {
+        return Arrays.stream(suffixes).map(suffix -> "CWA-Typhoon-33-20250728-" + suffix).toList();
+    }
+
+    private static List<String> ids(List<NcdrEntry> entries) {
+        return entries.stream().map(NcdrEntry::getId).toList();
+    }
+
+    private RealTimeHolidayService newService(NcdrFeedStub stub, Clock clock) {
+        NcdrProperties properties = new NcdrProperties(stub.url(), Duration.ofSeconds(5),
+                new NcdrProperties.Realtime(Duration.ofMinutes(2), Duration.ofSeconds(30), Duration.ofMinutes(10),
+                        Duration.ofSeconds(30)),
+                NcdrProperties.defaults().stream());
+        return new RealTimeHolidayService(new ObjectMapper(),
+                new NcdrFeedService(properties, HttpClientConfig.ncdrRequestFactory(properties, false), clock));
+    }
+
+    /**
+     * 等待背景抓取結束 (以反射讀取 {@link NcdrFeedService} 進行中的上游請求)。
+     */
+    private static void awaitIdle(RealTimeHolidayService target) throws Exception {
+        Field feedService = RealTimeHolidayService.class.getDeclaredField("feedService");
+        feedService.setAccessible(true);
+        Field inFlight = NcdrFeedService.class.getDeclaredField("inFlight");
+        inFlight.setAccessible(true);
+        AtomicReference<?> running = (AtomicReference<?>) inFlight.get(feedService.get(target));
+        awaitTrue(() -> running.get() == null);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("等待逾時");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * 可手動推進的時間來源。
+     */
+    private static final class MutableClock extends Clock {
+
+        private final AtomicLong millis = new AtomicLong(Instant.parse("2025-07-28T00:00:00Z").toEpochMilli());
+
+        /** 下一次於背景抓取執行緒讀取時間時拋出的 Error */
+        private final AtomicReference<Error> refreshFailure = new AtomicReference<>();
+
+        void advance(Duration duration) {
+            millis.addAndGet(duration.toMillis());
+        }
+
+        void failNextRefresh(Error error) {
+            refreshFailure.set(error);
+        }
+
+        @Override
+        public long millis() {
+            if (Thread.currentThread().getName().equals("ncdr-refresh")) {
+                Error error = refreshFailure.getAndSet(null);
+                if (error != null) {
+                    throw error;
+                }
+            }
+            return millis.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
 
-        return (boolean) isTaipeiCityAllAreaMethod.invoke(service, entry);
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
     }
 }
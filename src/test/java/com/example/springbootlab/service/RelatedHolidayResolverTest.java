@@ -0,0 +1,90 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.springbootlab.model.Holiday;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class RelatedHolidayResolverTest {
+
+    private static final String DATA_DIR = "src/main/resources/static/opendata/holiday";
+
+    @Test
+    void testResolveMatchesPublishedNotes() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int year = 2013; year <= 2026; year++) {
+            File file = new File(DATA_DIR, year + ".json");
+            List<Holiday> expected = objectMapper.readValue(file, new TypeReference<List<Holiday>>() {
+            });
+            List<Holiday> actual = objectMapper.readValue(file, new TypeReference<List<Holiday>>() {
+            });
+            actual.forEach(holiday -> holiday.setNote(null));
+
+            RelatedHolidayResolver.resolve(actual);
+
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getNote(), actual.get(i).getNote(),
+                        expected.get(i).getDate() + " 的關聯節日應與既有資料一致");
+            }
+        }
+    }
+
+    @Test
+    void testExtractMonthDays() {
+        assertEquals(List.of(1024), extract("於10月24日補假一日"));
+        assertEquals(List.of(209, 301), extract("02 月 09 日補行上班，3月1日放假"));
+        assertEquals(List.of(1208, 131), extract("十二月八日調整放假，一月三十一日補行上班"));
+        assertEquals(List.of(1225), extract("１２月２５日行憲紀念日"));
+        // 非日期或超出範圍
+        assertEquals(List.of(), extract("13月1日、2月32日、每月10日、111月1日"));
+        assertEquals(List.of(), extract(null));
+    }
+
+    @Test
+    void testNoPrefixFalsePositive() {
+        Holiday source = holiday("20241208", "測試紀念日", "紀念日", "十二月八日放假");
+        Holiday target = holiday("20240208", "", "補假", "");
+        Holiday other = holiday("20241101", "", "補假", "");
+        Holiday mention = holiday("20241102", "另一紀念日", "紀念日", "11月1日補假");
+
+        RelatedHolidayResolver.resolveYear(new ArrayList<>(List.of(source, target, other, mention)));
+
+        assertNull(target.getNote());
+        assertEquals("另一紀念日", other.getNote());
+    }
+
+    @Test
+    void testSkipsSelfAndKeepsListOrder() {
+        Holiday self = holiday("20250530", "端午節補假", "補假", "5月30日補假");
+        Holiday first = holiday("20250531", "端午節", "節日", "逢星期六，於5月30日補假");
+        Holiday second = holiday("20250601", "其他", "節日", "5月30日");
+
+        RelatedHolidayResolver.resolveYear(new ArrayList<>(List.of(self, first, second)));
+
+        assertEquals("端午節", self.getNote());
+    }
+
+    private static List<Integer> extract(String text) {
+        List<Integer> monthDays = new ArrayList<>();
+        RelatedHolidayResolver.extractMonthDays(text, monthDays);
+        return monthDays;
+    }
+
+    private static Holiday holiday(String date, String name, String category, String description) {
+        return Holiday.builder()
+                .date(date)
+                .year(date.substring(0, 4))
+                .name(name)
+                .holidayCategory(category)
+                .description(description)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.springbootlab.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.springbootlab.config.OpendataProperties;
+import com.example.springbootlab.exception.ResourceNotFoundException;
+import com.example.springbootlab.model.calendar.HolidayCalendarIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class WorkingDayCalculatorTest {
+
+    private static final String DATA_DIR = "src/main/resources/static/opendata/holiday";
+
+    private HolidayCalendarService calendarService;
+    private WorkingDayCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        calendarService = new HolidayCalendarService(new ObjectMapper(),
+                new OpendataProperties(new OpendataProperties.Holiday(null, DATA_DIR)));
+        calculator = new WorkingDayCalculator(calendarService);
+    }
+
+    @Test
+    void testKnownDates() {
+        // 2025/01/24 (五) 之後：01/25~02/02 春節連假，02/03 (一) 上班
+        assertEquals(LocalDate.of(2025, 2, 3), calculator.nextWorkingDay(LocalDate.of(2025, 1, 24)));
+        // 2025/02/08 (六) 為補行上班日
+        assertEquals(LocalDate.of(2025, 2, 8), calculator.addWorkingDays(LocalDate.of(2025, 2, 7), 1));
+        // 週日加 0 天 => 下一個上班日
+        assertEquals(LocalDate.of(2025, 6, 2), calculator.addWorkingDays(LocalDate.of(2025, 6, 1), 0));
+        // 上班日加 0 天 => 本身
+        assertEquals(LocalDate.of(2025, 6, 3), calculator.addWorkingDays(LocalDate.of(2025, 6, 3), 0));
+        // 跨年度往前推算
+        assertEquals(LocalDate.of(2024, 12, 31), calculator.subtractWorkingDays(LocalDate.of(2025, 1, 2), 1));
+    }
+
+    @Test
+    void testMatchesDayByDayLoop() {
+        LocalDate base = LocalDate.of(2013, 3, 1);
+        for (int offset = 0; offset < 4600; offset += 37) {
+            LocalDate date = base.plusDays(offset);
+            for (int days : new int[] { -30, -5, -1, 0, 1, 5, 30, 200 }) {
+                assertEquals(naiveAdd(date, days), calculator.addWorkingDays(date, days), date + " + " + days);
+            }
+        }
+    }
+
+    @Test
+    void testReadsSingleSnapshot() {
+        AtomicInteger snapshots = new AtomicInteger();
+        HolidayCalendarService counting = new HolidayCalendarService(new ObjectMapper(),
+                new OpendataProperties(new OpendataProperties.Holiday(null, DATA_DIR))) {
+            @Override
+            public HolidayCalendarIndex getIndex() {
+                snapshots.incrementAndGet();
+                return super.getIndex();
+            }
+        };
+        assertEquals(LocalDate.of(2025, 2, 3),
+                new WorkingDayCalculator(counting).nextWorkingDay(LocalDate.of(2025, 1, 24)));
+        assertEquals(1, snapshots.get(), "推算期間只應取得一次索引快照");
+    }
+
+    @Test
+    void testOutOfRange() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> calculator.subtractWorkingDays(LocalDate.of(2013, 1, 2), 10));
+        assertThrows(ResourceNotFoundException.class,
+                () -> calculator.addWorkingDays(LocalDate.of(2026, 12, 1), 100));
+        assertThrows(ResourceNotFoundException.class,
+                () -> calculator.addWorkingDays(LocalDate.of(1999, 1, 1), 1));
+    }
+
+    private LocalDate naiveAdd(LocalDate date, int days) {
+        if (days == 0) {
+            LocalDate current = date;
+            while (!isWorkingDay(current)) {
+                current = current.plusDays(1);
+            }
+            return current;
+        }
+        int step = days > 0 ? 1 : -1;
+        int remaining = Math.abs(days);
+        LocalDate current = date;
+        while (remaining > 0) {
+            current = current.plusDays(step);
+            if (isWorkingDay(current)) {
+                remaining--;
+            }
+        }
+        return current;
+    }
+
+    private boolean isWorkingDay(LocalDate date) {
+        return calendarService.getCalendarDay(date).isWorkingDay();
+    }
+}